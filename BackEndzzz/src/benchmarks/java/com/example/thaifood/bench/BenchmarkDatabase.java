@@ -0,0 +1,99 @@
+package com.example.thaifood.bench;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database in MySQL mode with the local stand-in schema (db/h2/schema.sql),
+ * filled with generated rows. Every instance is a separate database that lives until it is closed.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final String url;
+    private final DriverManagerDataSource dataSource;
+    // An in-memory H2 database is dropped when its last connection closes
+    private final Connection keepAlive;
+
+    BenchmarkDatabase() throws SQLException {
+        this.url = "jdbc:h2:mem:bench" + COUNTER.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        this.dataSource = new DriverManagerDataSource(url, "sa", "");
+        this.keepAlive = dataSource.getConnection();
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/h2/schema.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.populate(keepAlive);
+    }
+
+    // For a connection pool of its own, e.g. the application started by EmbeddedApp
+    String url() {
+        return url;
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    Connection connection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    BenchmarkDatabase withCategories(int rows) throws SQLException {
+        return execute(insertCategories(rows));
+    }
+
+    BenchmarkDatabase withMenuItems(int rows) throws SQLException {
+        return execute(insertMenuItems(rows));
+    }
+
+    BenchmarkDatabase withOrders(int rows) throws SQLException {
+        return execute(insertOrders(rows));
+    }
+
+    BenchmarkDatabase execute(String sql) throws SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute(sql);
+        }
+        return this;
+    }
+
+    private static String insertCategories(int rows) {
+        return "INSERT INTO categories (category_name, description, created_at) "
+                + "SELECT CONCAT('หมวด ', n), 'อาหารไทยตามภาค', DATEADD('MINUTE', n, TIMESTAMP '2024-01-01 10:00:00') "
+                + range(rows);
+    }
+
+    private static String insertMenuItems(int rows) {
+        return "INSERT INTO menu_items (item_name, description, price, image_url, category_id, is_available, created_at, updated_at) "
+                + "SELECT CONCAT('ผัดไทยกุ้งสด ', n), 'เส้นจันท์ผัดซอสมะขาม กุ้งสด ไข่ ถั่วงอก ใบกุยช่าย', "
+                + "45 + MOD(n, 200) + 0.50, CONCAT('https://cdn.example.com/menu/', n, '.jpg'), 1 + MOD(n, 8), "
+                + "MOD(n, 10) <> 0, DATEADD('MINUTE', n, TIMESTAMP '2024-01-01 10:00:00'), "
+                + "DATEADD('HOUR', n, TIMESTAMP '2024-02-01 09:30:00') "
+                + range(rows);
+    }
+
+    private static String insertOrders(int rows) {
+        return "INSERT INTO orders (customer_id, customer_name, order_date, status, amount, total_amount) "
+                + "SELECT 1 + MOD(n, 500), CONCAT('ลูกค้า ', 1 + MOD(n, 500)), "
+                + "DATEADD('SECOND', n * 37, TIMESTAMP '2024-03-01 11:00:00'), "
+                + "CASEWHEN(MOD(n, 4) = 0, 'completed', 'pending'), 120 + MOD(n, 900), 128.40 + MOD(n, 900) "
+                + range(rows);
+    }
+
+    // SYSTEM_RANGE names its column X in upper case, which DATABASE_TO_LOWER would not find unquoted
+    private static String range(int rows) {
+        return "FROM (SELECT \"X\" AS n FROM SYSTEM_RANGE(1, " + rows + ")) r";
+    }
+
+    @Override
+    public void close() throws SQLException {
+        keepAlive.close();
+    }
+}
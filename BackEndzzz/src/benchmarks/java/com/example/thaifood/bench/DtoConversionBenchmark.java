@@ -0,0 +1,79 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.dto.CategoryDTO;
+import com.example.thaifood.dto.MenuItemDTO;
+import com.example.thaifood.model.Category;
+import com.example.thaifood.model.MenuItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// Per-object cost of the entity <-> DTO conversions and of the ISO-8601 date handling inside them
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private MenuItem menuItem;
+    private Category category;
+    private MenuItemDTO menuItemDto;
+    private CategoryDTO categoryDto;
+    private LocalDateTime dateTime;
+    private String formatted;
+
+    @Setup
+    public void setUp() {
+        menuItem = Fixtures.menuItem(42);
+        category = Fixtures.category(7);
+        menuItemDto = new MenuItemDTO(menuItem);
+        categoryDto = new CategoryDTO(category);
+        dateTime = Fixtures.UPDATED_AT;
+        formatted = dateTime.format(FORMATTER);
+    }
+
+    @Benchmark
+    public MenuItemDTO menuItemToDto() {
+        return new MenuItemDTO(menuItem);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDto() {
+        return new CategoryDTO(category);
+    }
+
+    @Benchmark
+    public MenuItem menuItemDtoToEntity() {
+        return menuItemDto.toEntity();
+    }
+
+    @Benchmark
+    public Category categoryDtoToEntity() {
+        return categoryDto.toEntity();
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return dateTime.format(FORMATTER);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return LocalDateTime.parse(formatted, FORMATTER);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.ThaiBackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Starts the application in-process on a BenchmarkDatabase that is already created and seeded
+final class EmbeddedApp {
+
+    private EmbeddedApp() {
+    }
+
+    /**
+     * Properties are passed as command-line arguments so they override application.properties;
+     * {@code overrides} win over the defaults set here.
+     */
+    static ConfigurableApplicationContext start(BenchmarkDatabase database, WebApplicationType webType,
+                                                Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", database.url());
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.default_schema", "public");
+        properties.put("spring.sql.init.mode", "never");
+        // any free port, so a run never collides with an application already on the default one
+        properties.put("management.server.port", "0");
+        // show_sql prints straight to stdout, outside the logging configuration
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.show_sql", "false");
+        properties.putAll(overrides);
+
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ThaiBackendApplication.class)
+                .web(webType)
+                .run(args);
+    }
+}
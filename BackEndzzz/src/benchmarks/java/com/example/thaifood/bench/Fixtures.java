@@ -0,0 +1,84 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.dto.CategoryDTO;
+import com.example.thaifood.dto.MenuItemDTO;
+import com.example.thaifood.dto.OrderDTO;
+import com.example.thaifood.dto.OrderItemDTO;
+import com.example.thaifood.model.Category;
+import com.example.thaifood.model.MenuItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Entities and DTOs shaped like the seeded rows, for benchmarks that do not touch a database
+final class Fixtures {
+
+    static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+    static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 2, 1, 9, 30, 15);
+
+    private Fixtures() {
+    }
+
+    // Configured like the application's mapper: java.time support, ISO-8601 dates
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static MenuItem menuItem(long id) {
+        MenuItem item = new MenuItem();
+        item.setId(id);
+        item.setItemName("ผัดไทยกุ้งสด " + id);
+        item.setDescription("เส้นจันท์ผัดซอสมะขาม กุ้งสด ไข่ ถั่วงอก ใบกุยช่าย");
+        item.setPrice(45 + id % 200 + 0.5);
+        item.setImageUrl("https://cdn.example.com/menu/" + id + ".jpg");
+        item.setIsAvailable(id % 10 != 0);
+        item.setCreatedAt(CREATED_AT.plusMinutes(id));
+        item.setUpdatedAt(UPDATED_AT.plusHours(id));
+        return item;
+    }
+
+    static Category category(long id) {
+        Category category = new Category(id, "หมวด " + id, CREATED_AT.plusMinutes(id));
+        category.setDescription("อาหารไทยตามภาค");
+        return category;
+    }
+
+    static List<MenuItemDTO> menuItemDtos(int size) {
+        List<MenuItemDTO> dtos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            dtos.add(new MenuItemDTO(menuItem(id)));
+        }
+        return dtos;
+    }
+
+    static List<CategoryDTO> categoryDtos(int size) {
+        List<CategoryDTO> dtos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            dtos.add(new CategoryDTO(category(id)));
+        }
+        return dtos;
+    }
+
+    // Orders as GET /api/orders/summaries returns them, each with the given number of items
+    static List<OrderDTO> orderDtos(int size, int itemsPerOrder) {
+        List<OrderDTO> orders = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            OrderDTO order = new OrderDTO(id, "ลูกค้า " + (1 + id % 500), CREATED_AT.plusSeconds(id * 37),
+                    128.4 + id % 900, id % 4 == 0 ? "completed" : "pending");
+            List<OrderItemDTO> items = new ArrayList<>(itemsPerOrder);
+            List<Long> menuIds = new ArrayList<>(itemsPerOrder);
+            for (long menuId = 1; menuId <= itemsPerOrder; menuId++) {
+                MenuItem item = menuItem(menuId);
+                items.add(new OrderItemDTO(id, menuId, item.getItemName(), item.getPrice()));
+                menuIds.add(menuId);
+            }
+            order.setItems(items);
+            order.setMenuIds(menuIds);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.dto.CategoryDTO;
+import com.example.thaifood.dto.MenuItemDTO;
+import com.example.thaifood.dto.OrderDTO;
+import com.example.thaifood.jdbc.row.MenuItemRow;
+import com.example.thaifood.jdbc.row.OrderRow;
+import com.example.thaifood.model.MenuItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of the list endpoints at several sizes: the per-request path (entity to DTO,
+ * date formatting, Jackson) against encoding ready DTOs or typed rows, and against the bytes
+ * already held by {@link JsonResponseCache}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<MenuItem> menuItems;
+    private List<MenuItemDTO> menuItemDtos;
+    private List<CategoryDTO> categoryDtos;
+    private List<OrderDTO> orderDtos;
+    private List<MenuItemRow> menuRows;
+    private List<OrderRow> orderRows;
+    private JsonResponseCache jsonCache;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+        menuItems = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            menuItems.add(Fixtures.menuItem(id));
+        }
+        menuItemDtos = Fixtures.menuItemDtos(size);
+        categoryDtos = Fixtures.categoryDtos(size);
+        orderDtos = Fixtures.orderDtos(size, 3);
+
+        try (BenchmarkDatabase database = new BenchmarkDatabase().withMenuItems(size).withOrders(size);
+             Connection conn = database.connection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM menu_items")) {
+                menuRows = MenuItemRow.MAPPER.mapAll("SELECT * FROM menu_items", rs);
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM orders")) {
+                orderRows = OrderRow.MAPPER.mapAll("SELECT * FROM orders", rs);
+            }
+        }
+
+        jsonCache = new JsonResponseCache(objectMapper, 10000);
+        jsonCache.get("menus", "all", () -> menuItemDtos);
+    }
+
+    // What every GET paid before the caches: convert, format dates, encode
+    @Benchmark
+    public byte[] menuEntitiesToJson() throws Exception {
+        List<MenuItemDTO> dtos = new ArrayList<>(menuItems.size());
+        for (MenuItem item : menuItems) {
+            dtos.add(new MenuItemDTO(item));
+        }
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] menuDtosToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(menuItemDtos);
+    }
+
+    // GET /api/menus body from the catalog snapshot's typed rows
+    @Benchmark
+    public byte[] menuRowsToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(menuRows);
+    }
+
+    @Benchmark
+    public byte[] menuCachedBytes() throws Exception {
+        return jsonCache.get("menus", "all", () -> menuItemDtos);
+    }
+
+    @Benchmark
+    public byte[] categoryDtosToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(categoryDtos);
+    }
+
+    // GET /api/orders/summaries, three items per order
+    @Benchmark
+    public byte[] orderDtosToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(orderDtos);
+    }
+
+    // GET /api/orders page body
+    @Benchmark
+    public byte[] orderRowsToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(orderRows);
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.thaifood.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load against the application with full latency histograms. By default the load is open-loop:
+ * requests start on a fixed schedule at the target rate whether or not earlier ones have finished,
+ * and each latency is measured from the time the request was due, so a stalled server shows up in
+ * the percentiles instead of slowing the generator down. With {@code --clients} it runs closed-loop
+ * instead, each client sending its next request when the previous one completes.
+ * <p>
+ * Without {@code --target} the application is started in-process on a seeded in-memory H2 database
+ * in MySQL mode, so a run needs neither MySQL nor the network:
+ * <pre>
+ *   mvn -Pbenchmarks test-compile exec:exec@load -Dload.args="--rate=300 --duration=60s"
+ * </pre>
+ * Options, defaults in brackets: {@code --rate} [200] requests per second, {@code --duration} [60s],
+ * {@code --warmup} [10s], {@code --clients} [0, open-loop], {@code --mix} [{@link LoadMix#DEFAULT}],
+ * {@code --target} [embedded], {@code --out} [target/benchmarks/load], {@code --menu-items} [300],
+ * {@code --categories} [12], {@code --orders} [20000], {@code --max-in-flight} [10000],
+ * {@code --report-interval} [5s]. Options containing a dot are application properties for the
+ * embedded application, e.g. {@code --thaifood.threads.virtual=true}.
+ */
+public final class LoadGenerator {
+
+    // Latencies are recorded in microseconds, up to a minute at 3 significant digits
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int MEASURING = 2;
+    private static final PrintStream out = System.out;
+
+    private final HttpClient client;
+    private final LoadMix mix;
+    private final OperationStats[] stats;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private volatile int phase;
+
+    private LoadGenerator(LoadMix mix, int maxInFlight) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mix = mix;
+        this.stats = mix.names().stream().map(OperationStats::new).toArray(OperationStats[]::new);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Arguments are --name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            (name.contains(".") ? appProperties : options).put(name, value);
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "0"));
+        Duration duration = duration(options.getOrDefault("duration", "60s"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        Duration reportInterval = duration(options.getOrDefault("report-interval", "5s"));
+        int menuItems = Integer.parseInt(options.getOrDefault("menu-items", "300"));
+        int categories = Integer.parseInt(options.getOrDefault("categories", "12"));
+        int orders = Integer.parseInt(options.getOrDefault("orders", "20000"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        Path outDir = Path.of(options.getOrDefault("out", "target/benchmarks/load"));
+        Files.createDirectories(outDir);
+
+        BenchmarkDatabase database = null;
+        ConfigurableApplicationContext app = null;
+        URI target;
+        if (options.containsKey("target")) {
+            target = URI.create(options.get("target"));
+        } else {
+            out.printf("Seeding %d categories, %d menu items, %d orders%n", categories, menuItems, orders);
+            database = new BenchmarkDatabase().withCategories(categories).withMenuItems(menuItems).withOrders(orders);
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("server.port", "0");
+            // Application logging goes to a file, keeping the console for the report
+            properties.put("logging.file.name", outDir.resolve("app.log").toString());
+            properties.put("logging.pattern.console", "");
+            properties.putAll(appProperties);
+            app = EmbeddedApp.start(database, WebApplicationType.SERVLET, properties);
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            target = URI.create("http://localhost:" + port);
+        }
+
+        try {
+            LoadMix mix = new LoadMix(target, options.getOrDefault("mix", LoadMix.DEFAULT), menuItems, categories);
+            LoadGenerator generator = new LoadGenerator(mix, maxInFlight);
+            String mode = clients > 0 ? "closed loop, " + clients + " clients" : "open loop, " + rate + " req/s";
+            out.printf("Load against %s: %s, warm-up %ss, measured %ss%n", target, mode,
+                    warmup.toSeconds(), duration.toSeconds());
+
+            if (!warmup.isZero()) {
+                generator.run(1, warmup, rate, clients);
+            }
+            long started = System.nanoTime();
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            long interval = reportInterval.toMillis();
+            reporter.scheduleAtFixedRate(() -> generator.report(started, interval), interval, interval, TimeUnit.MILLISECONDS);
+            generator.run(MEASURING, duration, rate, clients);
+            reporter.shutdown();
+            reporter.awaitTermination(10, TimeUnit.SECONDS);
+            generator.drainIntervals(null);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Map<String, Object> summary = generator.summary(seconds);
+            summary.put("target", target.toString());
+            summary.put("mode", mode);
+            generator.printSummary(seconds);
+            generator.writeHistograms(outDir);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(outDir.resolve("summary.json").toFile(), summary);
+            out.printf("Histograms and summary.json written to %s%n", outDir.toAbsolutePath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (database != null) {
+                database.close();
+            }
+        }
+        // HttpClient threads would keep the JVM alive
+        System.exit(0);
+    }
+
+    // Runs one phase; only requests started in the MEASURING phase are recorded
+    private void run(int phase, Duration duration, double rate, int clients) throws InterruptedException {
+        this.phase = phase;
+        long end = System.nanoTime() + duration.toNanos();
+        if (clients > 0) {
+            CountDownLatch done = new CountDownLatch(clients);
+            for (int i = 0; i < clients; i++) {
+                sendClosedLoop(phase, end, done);
+            }
+            done.await();
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        double intervalNanos = 1e9 / rate;
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int operation = mix.next(random);
+            if (!inFlight.tryAcquire()) {
+                // Too far behind; shedding keeps the generator open-loop instead of waiting for the server
+                if (phase == MEASURING) {
+                    stats[operation].dropped.increment();
+                }
+                continue;
+            }
+            send(phase, operation, mix.request(operation, random), due);
+        }
+        // Let the last requests finish so they are counted
+        if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    private void send(int phase, int operation, HttpRequest request, long due) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    record(phase, operation, due, response, error);
+                });
+    }
+
+    private void sendClosedLoop(int phase, long end, CountDownLatch done) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = mix.next(random);
+        long sent = System.nanoTime();
+        client.sendAsync(mix.request(operation, random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    record(phase, operation, sent, response, error);
+                    if (System.nanoTime() < end) {
+                        sendClosedLoop(phase, end, done);
+                    } else {
+                        done.countDown();
+                    }
+                });
+    }
+
+    private void record(int requestPhase, int operation, long startedAt, HttpResponse<?> response, Throwable error) {
+        if (requestPhase != MEASURING || phase != MEASURING) {
+            return;
+        }
+        OperationStats op = stats[operation];
+        long micros = (System.nanoTime() - startedAt) / 1000;
+        op.recorder.recordValue(Math.min(Math.max(micros, 1), HIGHEST_MICROS));
+        if (error != null || response.statusCode() >= 400) {
+            op.errors.increment();
+        }
+    }
+
+    private synchronized void report(long started, long intervalMillis) {
+        Histogram interval = new Histogram(HIGHEST_MICROS, 3);
+        long errors = drainIntervals(interval);
+        out.printf(Locale.ROOT, "[%5.0fs] %8.1f req/s  p50 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f ms  errors %d%n",
+                (System.nanoTime() - started) / 1e9, interval.getTotalCount() * 1000.0 / intervalMillis,
+                ms(interval.getValueAtPercentile(50)), ms(interval.getValueAtPercentile(99)),
+                ms(interval.getValueAtPercentile(99.9)), ms(interval.getMaxValue()), errors);
+    }
+
+    // Moves what the recorders collected into the totals; returns the errors since the last call
+    private synchronized long drainIntervals(Histogram into) {
+        long errors = 0;
+        for (OperationStats op : stats) {
+            Histogram h = op.recorder.getIntervalHistogram();
+            op.total.add(h);
+            if (into != null) {
+                into.add(h);
+            }
+            long totalErrors = op.errors.sum();
+            errors += totalErrors - op.reportedErrors;
+            op.reportedErrors = totalErrors;
+        }
+        return errors;
+    }
+
+    private Histogram all() {
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        for (OperationStats op : stats) {
+            all.add(op.total);
+        }
+        return all;
+    }
+
+    private void printSummary(double seconds) {
+        out.printf("%n%-12s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long errors = 0;
+        long dropped = 0;
+        for (OperationStats op : stats) {
+            printRow(op.name, op.total, op.errors.sum(), op.dropped.sum(), seconds);
+            errors += op.errors.sum();
+            dropped += op.dropped.sum();
+        }
+        printRow("all", all(), errors, dropped, seconds);
+    }
+
+    private static void printRow(String name, Histogram h, long errors, long dropped, double seconds) {
+        out.printf(Locale.ROOT, "%-12s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, h.getTotalCount(), errors, dropped, h.getTotalCount() / seconds,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("seconds", seconds);
+        List<Map<String, Object>> operations = new ArrayList<>();
+        long errors = 0;
+        long dropped = 0;
+        for (OperationStats op : stats) {
+            operations.add(summaryRow(op.name, op.total, op.errors.sum(), op.dropped.sum(), seconds));
+            errors += op.errors.sum();
+            dropped += op.dropped.sum();
+        }
+        summary.put("all", summaryRow("all", all(), errors, dropped, seconds));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static Map<String, Object> summaryRow(String name, Histogram h, long errors, long dropped, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("operation", name);
+        row.put("count", h.getTotalCount());
+        row.put("errors", errors);
+        row.put("dropped", dropped);
+        row.put("throughput", h.getTotalCount() / seconds);
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double p : new double[]{50, 90, 99, 99.9, 99.99}) {
+            percentiles.put("p" + (p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p)),
+                    ms(h.getValueAtPercentile(p)));
+        }
+        percentiles.put("max", ms(h.getMaxValue()));
+        row.put("latencyMs", percentiles);
+        return row;
+    }
+
+    // One .hgrm percentile distribution per operation plus "all", in milliseconds
+    private void writeHistograms(Path dir) throws Exception {
+        for (OperationStats op : stats) {
+            writeHistogram(dir.resolve(op.name + ".hgrm"), op.total);
+        }
+        writeHistogram(dir.resolve("all.hgrm"), all());
+    }
+
+    private static void writeHistogram(Path file, Histogram h) throws Exception {
+        try (PrintStream ps = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            h.outputPercentileDistribution(ps, 1000.0);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    // 90s, 2m, 500ms or plain seconds
+    private static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v.endsWith("s") ? v.substring(0, v.length() - 1) : v));
+    }
+
+    private static final class OperationStats {
+        final String name;
+        final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+        final Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        long reportedErrors;
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.thaifood.bench;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Weighted request mix replayed by {@link LoadGenerator}, modelled on the Angular front end and the
+ * POS terminals: menu browsing and search, category lists, the kitchen board, order pages, and
+ * order placement with an Idempotency-Key, part of it retried with the same key and body.
+ */
+final class LoadMix {
+
+    static final String DEFAULT = "menus=30,menu=20,search=10,categories=10,category=5,board=5,orders=5,create=13,retry=2";
+    static final List<String> OPERATIONS =
+            List.of("menus", "menu", "search", "categories", "category", "board", "orders", "create", "retry");
+
+    private static final String[] SEARCH_TERMS = {"ผัด", "ผัดไทย", "กุ้ง", "ไทย", "pad", "thai", "จันท์", "ใบกุยช่าย"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final int menuItems;
+    private final int categories;
+    private final String[] names;
+    private final int[] cumulativeWeights;
+    // Last order placed, replayed by "retry" as a client would after a lost response
+    private final AtomicReference<String[]> lastOrder = new AtomicReference<>();
+
+    LoadMix(URI base, String spec, int menuItems, int categories) {
+        this.base = base;
+        this.menuItems = menuItems;
+        this.categories = categories;
+        List<String> parsedNames = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Mix entries are name=weight, got '" + part + "'");
+            }
+            if (!OPERATIONS.contains(kv[0].trim())) {
+                throw new IllegalArgumentException("Unknown operation '" + kv[0].trim() + "', expected one of " + OPERATIONS);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            total += weight;
+            parsedNames.add(kv[0].trim());
+            weights.add(total);
+        }
+        if (parsedNames.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations with a positive weight");
+        }
+        this.names = parsedNames.toArray(String[]::new);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    List<String> names() {
+        return List.of(names);
+    }
+
+    // Index into names() of the next operation
+    int next(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    HttpRequest request(int operation, ThreadLocalRandom random) {
+        return request(names[operation], random);
+    }
+
+    private HttpRequest request(String name, ThreadLocalRandom random) {
+        return switch (name) {
+            case "menus" -> get("/api/menus");
+            case "menu" -> get("/api/menus/" + (1 + random.nextInt(menuItems)));
+            case "search" -> get("/api/menus/search?q="
+                    + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8));
+            case "categories" -> get("/api/categories");
+            case "category" -> get("/api/categories/" + (1 + random.nextInt(categories)));
+            case "board" -> get("/api/orders/board");
+            case "orders" -> get(random.nextBoolean() ? "/api/orders?limit=20" : "/api/orders?limit=20&status=pending");
+            case "create" -> createOrder(random);
+            case "retry" -> {
+                String[] order = lastOrder.get();
+                yield order == null ? createOrder(random) : post(order[0], order[1]);
+            }
+            default -> throw new IllegalArgumentException("Unknown operation " + name);
+        };
+    }
+
+    // 1 to 5 lines of available items; the seed marks every tenth menu item unavailable
+    private HttpRequest createOrder(ThreadLocalRandom random) {
+        StringBuilder body = new StringBuilder("{\"customer_id\":").append(1 + random.nextInt(500)).append(",\"items\":[");
+        int lines = 1 + random.nextInt(5);
+        for (int i = 0; i < lines; i++) {
+            int menuId = 1 + random.nextInt(menuItems);
+            if (menuId % 10 == 0) {
+                menuId--;
+            }
+            body.append(i == 0 ? "" : ",").append("{\"menu_id\":").append(menuId)
+                    .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        body.append("]}");
+        String key = UUID.randomUUID().toString();
+        lastOrder.set(new String[]{key, body.toString()});
+        return post(key, body.toString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String idempotencyKey, String body) {
+        return HttpRequest.newBuilder(base.resolve("/api/orders"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
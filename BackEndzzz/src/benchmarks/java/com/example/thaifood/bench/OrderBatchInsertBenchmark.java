@@ -0,0 +1,122 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.jdbc.OrderInserts;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order inserts as POST /api/orders/batch runs them (one JDBC batch, one transaction, generated keys)
+ * against one transaction per order as POST /api/orders does. Scores are per call; orders per
+ * second is the score times {@code batchSize}. Against MySQL, rewriteBatchedStatements adds the
+ * saved round trips on top of what the embedded database shows here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBatchInsertBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int batchSize;
+
+    private BenchmarkDatabase database;
+    private Connection conn;
+    private List<String> insertCols;
+    private List<List<Object>> rows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase();
+        conn = database.connection();
+        insertCols = OrderInserts.columns(new SchemaRegistry(database.dataSource()).get(conn, "orders"));
+        rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Map<String, Object> orderRequest = new HashMap<>();
+            orderRequest.put("customer_id", 1 + i % 500);
+            orderRequest.put("amount", 120 + i % 900);
+            rows.add(OrderInserts.values(insertCols, orderRequest));
+        }
+    }
+
+    // Keeps the table from growing across iterations
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE orders");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<Long> batch() throws SQLException {
+        List<Long> ids = new ArrayList<>(rows.size());
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(OrderInserts.sql(insertCols, 1), Statement.RETURN_GENERATED_KEYS)) {
+            for (List<Object> vals : rows) {
+                for (int i = 0; i < vals.size(); i++) {
+                    pstmt.setObject(i + 1, vals.get(i));
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            try (ResultSet gk = pstmt.getGeneratedKeys()) {
+                while (gk.next()) {
+                    ids.add(gk.getLong(1));
+                }
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> oneByOne() throws SQLException {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (List<Object> vals : rows) {
+            try (PreparedStatement pstmt = conn.prepareStatement(OrderInserts.sql(insertCols, 1), Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < vals.size(); i++) {
+                    pstmt.setObject(i + 1, vals.get(i));
+                }
+                pstmt.executeUpdate();
+                try (ResultSet gk = pstmt.getGeneratedKeys()) {
+                    if (gk.next()) {
+                        ids.add(gk.getLong(1));
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+}
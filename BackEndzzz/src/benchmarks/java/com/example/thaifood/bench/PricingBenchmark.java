@@ -0,0 +1,91 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.cache.MenuCatalog;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.pricing.PriceQuote;
+import com.example.thaifood.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PricingEngine} on 1- to 50-line orders over a 500-item menu, both from primitive arrays
+ * and from a parsed request body as POST /api/orders hands it over.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int MENU_SIZE = 500;
+
+    @Param({"1", "5", "20", "50"})
+    private int lines;
+
+    private BenchmarkDatabase database;
+    private PricingEngine pricingEngine;
+    private long[] menuIds;
+    private int[] quantities;
+    private Map<String, Object> orderRequest;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase().withMenuItems(MENU_SIZE);
+        // Every tenth seeded item is unavailable; keep to the available ones
+        database.execute("UPDATE menu_items SET is_available = TRUE");
+        MenuCatalog menuCatalog = new MenuCatalog(database.dataSource(), new SchemaRegistry(database.dataSource()));
+        pricingEngine = new PricingEngine(menuCatalog, 700, 1000, 2000, 999, 200);
+
+        menuIds = new long[lines];
+        quantities = new int[lines];
+        List<Map<String, Object>> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            menuIds[i] = 1 + (i * 37L) % MENU_SIZE;
+            quantities[i] = 1 + i % 3;
+            Map<String, Object> item = new HashMap<>();
+            item.put("menu_id", menuIds[i]);
+            item.put("quantity", quantities[i]);
+            items.add(item);
+        }
+        orderRequest = new HashMap<>();
+        orderRequest.put("items", items);
+        orderRequest.put("discount_bps", 500);
+
+        // Builds the price table outside the measurement
+        pricingEngine.quote(menuIds, quantities, 0);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public PriceQuote quoteArrays() {
+        return pricingEngine.quote(menuIds, quantities, 500);
+    }
+
+    @Benchmark
+    public PriceQuote quoteRequest() {
+        return pricingEngine.quote(orderRequest);
+    }
+}
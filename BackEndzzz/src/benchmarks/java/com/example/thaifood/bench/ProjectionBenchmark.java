@@ -0,0 +1,109 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.dto.CategoryDTO;
+import com.example.thaifood.dto.MenuItemDTO;
+import com.example.thaifood.model.Category;
+import com.example.thaifood.model.MenuItem;
+import com.example.thaifood.repository.CategoryRepository;
+import com.example.thaifood.repository.MenuRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu and category list reads through the application's repositories, on the embedded database:
+ * managed entities copied into DTOs (the services before the projections) against selecting
+ * straight into the DTOs. Second-level caching is off so only hydration is compared. The menu list
+ * is served from the catalog snapshot now, so its projection query lives here rather than in
+ * MenuRepository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProjectionBenchmark {
+
+    private static final String MENU_DTO_SELECT = "SELECT new com.example.thaifood.dto.MenuItemDTO(m.id, m.itemName, "
+            + "m.description, m.price, m.imageUrl, m.isAvailable, m.createdAt, m.updatedAt) FROM MenuItem m";
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private MenuRepository menuRepository;
+    private CategoryRepository categoryRepository;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase().withMenuItems(rows).withCategories(rows);
+        context = EmbeddedApp.start(database, WebApplicationType.NONE, Map.of(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache", "false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache", "false",
+                "thaifood.bulkhead.enabled", "false",
+                "logging.level.root", "WARN",
+                "logging.level.org.springframework", "WARN",
+                "logging.level.org.hibernate", "WARN",
+                "logging.level.com.example.thaifood", "WARN"));
+        menuRepository = context.getBean(MenuRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<MenuItemDTO> menuEntitiesToDtos() {
+        List<MenuItem> items = menuRepository.findAll();
+        List<MenuItemDTO> dtos = new ArrayList<>(items.size());
+        for (MenuItem item : items) {
+            dtos.add(new MenuItemDTO(item));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MenuItemDTO> menuProjection() {
+        return entityManager.createQuery(MENU_DTO_SELECT, MenuItemDTO.class).getResultList();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryEntitiesToDtos() {
+        List<Category> categories = categoryRepository.findAll();
+        List<CategoryDTO> dtos = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            dtos.add(new CategoryDTO(category));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryProjection() {
+        return categoryRepository.findAllProjected();
+    }
+}
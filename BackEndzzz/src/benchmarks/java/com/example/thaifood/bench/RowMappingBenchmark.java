@@ -0,0 +1,93 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.jdbc.row.MenuItemRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/menus row mapping: the original per-row LinkedHashMap filled by column name
+ * against the typed {@link MenuItemRow} records read by column index. Both include running the
+ * query on an embedded database; compare gc.alloc.rate.norm for the allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final String SELECT_ALL = "SELECT * FROM menu_items";
+
+    @Param({"10", "100", "1000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private Connection conn;
+    private List<String> columns;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase().withMenuItems(rows);
+        conn = database.connection();
+        columns = new ArrayList<>();
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(null, null, "menu_items", null)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        database.close();
+    }
+
+    // As the controllers did before the typed mappers: one map per row, every cell looked up by name
+    @Benchmark
+    public List<Map<String, Object>> mapsByColumnName() throws SQLException {
+        List<Map<String, Object>> menus = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ALL)) {
+            while (rs.next()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (String c : columns) {
+                    row.put(c, rs.getObject(c));
+                }
+                menus.add(row);
+            }
+        }
+        return menus;
+    }
+
+    @Benchmark
+    public List<MenuItemRow> typedRows() throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ALL)) {
+            return MenuItemRow.MAPPER.mapAll(SELECT_ALL, rs);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column discovery per request ({@code DatabaseMetaData.getColumns}, one extra round trip to RDS on
+ * every call) against the cached {@link SchemaRegistry}. Against the embedded database this only
+ * shows the local cost; the round trip saved per request is the network latency to the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaDiscoveryBenchmark {
+
+    private BenchmarkDatabase database;
+    private Connection conn;
+    private SchemaRegistry schemaRegistry;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase();
+        conn = database.connection();
+        schemaRegistry = new SchemaRegistry(database.dataSource());
+        schemaRegistry.refresh();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        database.close();
+    }
+
+    // The controllers' former private discoverColumns(conn, "menu_items")
+    @Benchmark
+    public List<String> metadataPerRequest() throws SQLException {
+        List<String> cols = new ArrayList<>();
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(null, null, "menu_items", null)) {
+            while (rs.next()) {
+                cols.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        return cols;
+    }
+
+    @Benchmark
+    public TableSchema cachedSchema() throws SQLException {
+        return schemaRegistry.get(conn, "menu_items");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.thaifood.bench;
+
+import com.example.thaifood.jdbc.MeteredDataSource;
+import com.example.thaifood.jdbc.StatementMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link MeteredDataSource} per statement and per row: the same prepared query on a plain
+ * and on a metered connection, recording into a Prometheus registry with the SLO buckets from
+ * application.properties. The difference between the two is the overhead a request pays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementMetricsBenchmark {
+
+    private static final String SQL = "SELECT id_item, price FROM menu_items WHERE id_item <= ?";
+
+    @Param({"1", "100"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private Connection plain;
+    private Connection metered;
+
+    @Setup
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase().withMenuItems(rows);
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals(StatementMetrics.STATEMENTS)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(slo(1), slo(5), slo(10), slo(25), slo(50), slo(100), slo(250),
+                                slo(500), slo(1000), slo(5000))
+                        .build()
+                        .merge(config);
+            }
+        });
+        plain = database.connection();
+        metered = new MeteredDataSource(database.dataSource(), new StatementMetrics(registry, 500)).getConnection();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        plain.close();
+        metered.close();
+        database.close();
+    }
+
+    @Benchmark
+    public long plainQuery() throws SQLException {
+        return query(plain);
+    }
+
+    @Benchmark
+    public long meteredQuery() throws SQLException {
+        return query(metered);
+    }
+
+    private long query(Connection conn) throws SQLException {
+        long ids = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL)) {
+            pstmt.setInt(1, rows);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids += rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static double slo(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+}
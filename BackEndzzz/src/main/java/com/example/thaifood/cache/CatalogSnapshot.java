@@ -0,0 +1,36 @@
+package com.example.thaifood.cache;
+
+import java.util.List;
+
+/**
+ * One immutable, versioned copy of a catalog. Readers share the same instance without locking;
+ * the elements must be treated as read-only.
+ */
+public final class CatalogSnapshot<T> {
+
+    private final long version;
+    private final List<T> items;
+    private final long builtAt;
+
+    public CatalogSnapshot(long version, List<T> items) {
+        this.version = version;
+        this.items = List.copyOf(items);
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getAgeMillis() {
+        return System.currentTimeMillis() - builtAt;
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.thaifood.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each {@code Idempotency-Key} so a retried request gets the first
+ * response replayed instead of running again. A duplicate that arrives while the first request is
+ * still running waits for its result rather than inserting a second time. A key reused with a
+ * different request body is rejected with 422.
+ * <p>
+ * Keys live in a fixed number of lock-striped maps kept in creation order, so expiry only ever
+ * looks at the head of a stripe and unrelated keys rarely contend. Server errors are not
+ * remembered, so the client can retry them. With {@code thaifood.idempotency.persistent=true}
+ * completed responses are also written to the {@code idempotency_keys} table and found again after
+ * a restart.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String TABLE = "idempotency_keys";
+
+    // A completed response: status, content type and the serialized body
+    private record Stored(int status, String contentType, byte[] body) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Stored> result, long createdAt) {
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Stripe[] stripes;
+    private final int maxEntriesPerStripe;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final long persistentTtlMillis;
+    private final boolean persistent;
+    // Set once the table exists; until then keys are kept in memory only
+    private volatile boolean tableReady;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+
+    public IdempotencyStore(DataSource dataSource,
+                            ObjectMapper objectMapper,
+                            @Value("${thaifood.idempotency.stripes:16}") int stripes,
+                            @Value("${thaifood.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${thaifood.idempotency.ttl-ms:3600000}") long ttlMillis,
+                            @Value("${thaifood.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+                            @Value("${thaifood.idempotency.persistent:false}") boolean persistent,
+                            @Value("${thaifood.idempotency.persistent-ttl-ms:86400000}") long persistentTtlMillis) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        // Power of two so the stripe is picked with a mask
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / n);
+        this.ttlMillis = ttlMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.persistent = persistent;
+        this.persistentTtlMillis = persistentTtlMillis;
+    }
+
+    /**
+     * Runs {@code handler} once per key and replays its response for every later request with the
+     * same key and body. {@code request} is what identifies the body (e.g. the request map).
+     */
+    public ResponseEntity<?> execute(String key, Object request, Supplier<ResponseEntity<?>> handler) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+
+        Stripe stripe = stripe(key);
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        Entry existing;
+        stripe.lock.lock();
+        try {
+            expire(stripe, now);
+            existing = stripe.entries.get(key);
+            if (existing == null) {
+                stripe.entries.put(key, new Entry(fingerprint, mine, now));
+                if (stripe.entries.size() > maxEntriesPerStripe) {
+                    Iterator<Entry> eldest = stripe.entries.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                mismatched.increment();
+                return ResponseEntity.unprocessableEntity()
+                        .body(HEADER + " was already used with a different request");
+            }
+            return await(key, existing.result());
+        }
+        return lead(stripe, key, fingerprint, mine, handler);
+    }
+
+    // First request for the key: finds a stored response from an earlier run, or runs the handler
+    private ResponseEntity<?> lead(Stripe stripe, String key, String fingerprint,
+                                   CompletableFuture<Stored> mine, Supplier<ResponseEntity<?>> handler) {
+        try {
+            Stored stored = tableReady ? load(key, fingerprint) : null;
+            if (stored != null) {
+                restored.increment();
+                mine.complete(stored);
+                return replay(stored);
+            }
+
+            executed.increment();
+            ResponseEntity<?> response = handler.get();
+            stored = toStored(response);
+            mine.complete(stored);
+            if (stored.status() >= 500) {
+                // Not remembered: the next retry runs again
+                forget(stripe, key, mine);
+            } else if (tableReady) {
+                save(key, fingerprint, stored);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            forget(stripe, key, mine);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> await(String key, CompletableFuture<Stored> result) {
+        if (!result.isDone()) {
+            waited.increment();
+        }
+        try {
+            Stored stored = result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            replayed.increment();
+            return replay(stored);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A request with " + HEADER + " " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Interrupted");
+        } catch (ExecutionException e) {
+            // The first request failed without a response; so does this one, and the key is free again
+            return ResponseEntity.internalServerError()
+                    .body("Request failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private void forget(Stripe stripe, String key, CompletableFuture<Stored> mine) {
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null && entry.result() == mine) {
+                stripe.entries.remove(key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Entries are in creation order and share one TTL, so expired ones are always at the head
+    private void expire(Stripe stripe, long now) {
+        Iterator<Entry> it = stripe.entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (now - entry.createdAt() < ttlMillis) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private ResponseEntity<byte[]> replay(Stored stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            builder.contentType(MediaType.parseMediaType(stored.contentType()));
+        }
+        return builder.body(stored.body());
+    }
+
+    private Stored toStored(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        try {
+            if (body == null) {
+                return new Stored(response.getStatusCode().value(), null, new byte[0]);
+            }
+            if (body instanceof String text) {
+                return new Stored(response.getStatusCode().value(), MediaType.TEXT_PLAIN_VALUE,
+                        text.getBytes(StandardCharsets.UTF_8));
+            }
+            return new Stored(response.getStatusCode().value(), MediaType.APPLICATION_JSON_VALUE,
+                    objectMapper.writeValueAsBytes(body));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize response for replay", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTable() {
+        if (!persistent) {
+            return;
+        }
+        String ddl = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "idem_key VARCHAR(" + MAX_KEY_LENGTH + ") NOT NULL PRIMARY KEY, "
+                + "fingerprint CHAR(64) NOT NULL, "
+                + "status INT NOT NULL, "
+                + "content_type VARCHAR(100), "
+                + "body BLOB, "
+                + "created_at TIMESTAMP NOT NULL)";
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+            tableReady = true;
+        } catch (SQLException e) {
+            // Keep serving from memory only rather than failing every keyed request
+            logger.warn("Could not create {}, idempotency keys will not survive a restart: {}", TABLE, e.getMessage());
+        }
+    }
+
+    private Stored load(String key, String fingerprint) {
+        String sql = "SELECT fingerprint, status, content_type, body FROM " + TABLE
+                + " WHERE idem_key = ? AND created_at > ?";
+        try (Connection conn = dataSource.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setTimestamp(2, new Timestamp(System.currentTimeMillis() - persistentTtlMillis));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                if (!fingerprint.equals(rs.getString(1))) {
+                    mismatched.increment();
+                    return new Stored(HttpStatus.UNPROCESSABLE_ENTITY.value(), MediaType.TEXT_PLAIN_VALUE,
+                            (HEADER + " was already used with a different request").getBytes(StandardCharsets.UTF_8));
+                }
+                return new Stored(rs.getInt(2), rs.getString(3), rs.getBytes(4));
+            }
+        } catch (SQLException e) {
+            logger.warn("Idempotency key lookup failed, handling {} as new: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(String key, String fingerprint, Stored stored) {
+        String sql = "INSERT INTO " + TABLE
+                + " (idem_key, fingerprint, status, content_type, body, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dataSource.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, fingerprint);
+            pstmt.setInt(3, stored.status());
+            pstmt.setString(4, stored.contentType());
+            pstmt.setBytes(5, stored.body());
+            pstmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            // Still replayed from memory; only a restart inside the TTL could run it twice
+            logger.warn("Could not persist idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thaifood.idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                expire(stripe, now);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (!tableReady) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + TABLE + " WHERE created_at < ?")) {
+            pstmt.setTimestamp(1, new Timestamp(now - persistentTtlMillis));
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.warn("Could not purge expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size);
+        stats.put("stripes", stripes.length);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("persistent", tableReady);
+        stats.put("executed", executed.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("waited", waited.sum());
+        stats.put("restored", restored.sum());
+        stats.put("mismatched", mismatched.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.thaifood.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of fully serialized JSON response bodies, grouped into regions ("menus", "categories")
+ * that are invalidated as a whole by the write paths. Responses are written straight from the
+ * cached bytes, skipping DTO conversion, date formatting and Jackson encoding on a hit.
+ * Each region is a bounded Caffeine cache: past {@code max-entries-per-region} the least
+ * recently used entries are evicted, so a run of one-off keys cannot crowd out the hot ones.
+ */
+@Component
+public class JsonResponseCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        // Value to serialize, or null when there is nothing to cache (e.g. not found)
+        Object load() throws Exception;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntriesPerRegion;
+    private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<>();
+
+    public JsonResponseCache(ObjectMapper objectMapper,
+                             @Value("${thaifood.json-cache.max-entries-per-region:10000}") int maxEntriesPerRegion) {
+        this.objectMapper = objectMapper;
+        this.maxEntriesPerRegion = maxEntriesPerRegion;
+    }
+
+    public static ResponseEntity<byte[]> toResponse(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Cached bytes for a key, rendering and caching them on a miss.
+     * Returns null when the loader has nothing to serialize.
+     */
+    public byte[] get(String regionName, Object key, Loader loader) throws Exception {
+        Region region = region(regionName);
+        byte[] body = region.entries.getIfPresent(key);
+        if (body != null) {
+            region.hits.increment();
+            return body;
+        }
+        region.misses.increment();
+
+        // Concurrent misses on the same key share one load
+        return region.loads.execute(key, () -> load(region, key, loader));
+    }
+
+    private byte[] load(Region region, Object key, Loader loader) throws Exception {
+        long generation = region.generation.get();
+        Object value = loader.load();
+        if (value == null) {
+            return null;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(value);
+
+        region.entries.put(key, body);
+        // An invalidation that raced with the load may have been missed by the clear; undo our put
+        if (region.generation.get() != generation) {
+            region.entries.asMap().remove(key, body);
+        }
+        return body;
+    }
+
+    public void invalidate(String regionName) {
+        Region region = region(regionName);
+        region.generation.incrementAndGet();
+        region.entries.invalidateAll();
+        region.loads.invalidate();
+        region.invalidations.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        regions.forEach((name, region) -> {
+            long hits = region.hits.sum();
+            long total = hits + region.misses.sum();
+            long bytes = 0;
+            for (byte[] body : region.entries.asMap().values()) {
+                bytes += body.length;
+            }
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("entries", region.entries.estimatedSize());
+            r.put("bytes", bytes);
+            r.put("hits", hits);
+            r.put("misses", total - hits);
+            r.put("hitRatio", total == 0 ? 0.0 : (double) hits / total);
+            r.put("evictions", region.entries.stats().evictionCount());
+            r.put("invalidations", region.invalidations.sum());
+            r.put("loads", region.loads.stats());
+            stats.put(name, r);
+        });
+        return stats;
+    }
+
+    private Region region(String name) {
+        return regions.computeIfAbsent(name, n -> new Region(n, maxEntriesPerRegion));
+    }
+
+    private static final class Region {
+        final Cache<Object, byte[]> entries;
+        final SingleFlight<Object, byte[]> loads;
+        final AtomicLong generation = new AtomicLong();
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+
+        Region(String name, int maxEntries) {
+            this.entries = Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+            this.loads = new SingleFlight<>(name);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.thaifood.cache;
+
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.jdbc.row.MenuItemRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The one in-memory snapshot of the {@code menu_items} rows: {@code GET /api/menus}, the
+ * {@code MenuItemService} reads, search and pricing all read it. Loaded at startup and rebuilt
+ * after every write, whether made through {@code MenuController} or {@code MenuItemService}
+ * (see {@code MenuItemService.menuItemsChanged}).
+ */
+@Component
+public class MenuCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private final DataSource dataSource;
+    private final SchemaRegistry schemaRegistry;
+    private static final String SELECT_ALL = "SELECT * FROM menu_items";
+
+    private final SnapshotHolder<MenuItemRow> snapshot;
+
+    public MenuCatalog(DataSource dataSource, SchemaRegistry schemaRegistry) {
+        this.dataSource = dataSource;
+        this.schemaRegistry = schemaRegistry;
+        this.snapshot = new SnapshotHolder<>("menu_items", this::loadRows);
+    }
+
+    public CatalogSnapshot<MenuItemRow> current() {
+        return snapshot.get();
+    }
+
+    public void rebuildAfterWrite() {
+        snapshot.rebuildAfterWrite();
+    }
+
+    public Map<String, Object> stats() {
+        return snapshot.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            snapshot.rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Menu catalog warm-up failed, it will load on first request: {}", e.getMessage());
+        }
+    }
+
+    private List<MenuItemRow> loadRows() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "menu_items");
+            if (schema.isEmpty()) {
+                throw new SQLException("No columns found for table 'menu_items'");
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SELECT_ALL)) {
+                return MenuItemRow.MAPPER.mapAll(SELECT_ALL, rs);
+            }
+        }
+    }
+}
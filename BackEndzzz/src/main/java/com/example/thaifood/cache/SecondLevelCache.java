@@ -0,0 +1,76 @@
+package com.example.thaifood.cache;
+
+import com.example.thaifood.model.Category;
+import com.example.thaifood.model.MenuItem;
+import com.example.thaifood.repository.CategoryRepository;
+import com.example.thaifood.repository.MenuRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Access to the Hibernate second-level cache (Caffeine through JCache, regions configured in
+ * {@code caffeine-jcache.conf}, see SecondLevelCacheConfig). Writes made through the entities keep it correct on their own;
+ * the raw-JDBC controllers write behind Hibernate's back and must evict here after each write.
+ */
+@Component
+public class SecondLevelCache {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public void evictMenuItems() {
+        sessionFactory.getCache().evictEntityData(MenuItem.class);
+        sessionFactory.getCache().evictQueryRegion(MenuRepository.SEARCH_REGION);
+    }
+
+    public void evictCategories() {
+        sessionFactory.getCache().evictEntityData(Category.class);
+        sessionFactory.getCache().evictQueryRegion(CategoryRepository.BY_NAME_REGION);
+    }
+
+    // Per-region hit, miss and eviction counts from the underlying Caffeine caches
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        RegionFactory regionFactory = sessionFactory.getServiceRegistry().getService(RegionFactory.class);
+        if (!(regionFactory instanceof JCacheRegionFactory jcache) || jcache.getCacheManager() == null) {
+            stats.put("enabled", false);
+            return stats;
+        }
+        stats.put("enabled", true);
+        CacheManager cacheManager = jcache.getCacheManager();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        TreeSet<String> names = new TreeSet<>();
+        cacheManager.getCacheNames().forEach(names::add);
+        for (String name : names) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache == null) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats s = caffeine.stats();
+            Map<String, Object> region = new LinkedHashMap<>();
+            region.put("size", caffeine.estimatedSize());
+            region.put("hits", s.hitCount());
+            region.put("misses", s.missCount());
+            region.put("hitRatio", s.hitRate());
+            region.put("evictions", s.evictionCount());
+            regions.put(name, region);
+        }
+        stats.put("regions", regions);
+        return stats;
+    }
+}
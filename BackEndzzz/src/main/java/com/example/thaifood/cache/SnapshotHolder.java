@@ -0,0 +1,108 @@
+package com.example.thaifood.cache;
+
+import com.example.thaifood.exception.CatalogLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copy-on-write holder for a {@link CatalogSnapshot}. Reads are a single volatile load;
+ * rebuilds are serialized and swap a complete new snapshot in atomically, so a reader
+ * never observes a half-built catalog. Versions increase monotonically across rebuilds.
+ */
+public class SnapshotHolder<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotHolder.class);
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        List<T> load() throws Exception;
+    }
+
+    private final String name;
+    private final Loader<T> loader;
+    private final AtomicReference<CatalogSnapshot<T>> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public SnapshotHolder(String name, Loader<T> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    public CatalogSnapshot<T> get() {
+        CatalogSnapshot<T> snapshot = current.get();
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        return loadIfAbsent();
+    }
+
+    // Cold-start path: only the first caller loads, the rest wait and reuse its snapshot
+    private synchronized CatalogSnapshot<T> loadIfAbsent() {
+        CatalogSnapshot<T> snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    public synchronized CatalogSnapshot<T> rebuild() {
+        List<T> items;
+        try {
+            items = loader.load();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CatalogLoadException("Failed to load catalog '" + name + "'", e);
+        }
+        CatalogSnapshot<T> snapshot = new CatalogSnapshot<>(versions.incrementAndGet(), items);
+        current.set(snapshot);
+        rebuilds.increment();
+        logger.debug("Catalog '{}' rebuilt: version={}, items={}", name, snapshot.getVersion(), items.size());
+        return snapshot;
+    }
+
+    /**
+     * Rebuild after a write has committed. A failed rebuild must not fail the write itself,
+     * so the stale snapshot is dropped instead and the next read reloads it.
+     */
+    public void rebuildAfterWrite() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            current.set(null);
+            logger.warn("Catalog '{}' rebuild failed, will reload on next read: {}", name, e.getMessage());
+        }
+    }
+
+    public void invalidate() {
+        current.set(null);
+    }
+
+    public Map<String, Object> stats() {
+        CatalogSnapshot<T> snapshot = current.get();
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("loaded", snapshot != null);
+        stats.put("version", snapshot != null ? snapshot.getVersion() : versions.get());
+        stats.put("items", snapshot != null ? snapshot.getItems().size() : 0);
+        stats.put("ageMillis", snapshot != null ? snapshot.getAgeMillis() : -1);
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("rebuilds", rebuilds.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.thaifood.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts every root appender Spring Boot configured (console, and the file when
+ * {@code logging.file.name} is set) behind a logback {@link AsyncAppender}, so request threads only
+ * enqueue events into a bounded ring buffer and a single worker does the I/O. With
+ * {@code neverBlock} a full queue drops events instead of stalling requests; once the queue is
+ * 80% full, TRACE/DEBUG/INFO events are dropped first so WARN and ERROR still get through.
+ * Runs right after Spring Boot's logging set-up, so the usual {@code logging.*} properties
+ * (patterns, file, levels, the actuator loggers endpoint) keep working unchanged.
+ * Registered in META-INF/spring.factories; {@code thaifood.logging.async.enabled=false} turns it off.
+ */
+public class AsyncLoggingListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+    @Override
+    public int getOrder() {
+        return LoggingApplicationListener.DEFAULT_ORDER + 1;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        Environment env = event.getEnvironment();
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!env.getProperty("thaifood.logging.async.enabled", Boolean.class, true)
+                || !(factory instanceof LoggerContext context)) {
+            return;
+        }
+        int queueSize = env.getProperty("thaifood.logging.async.queue-size", Integer.class, 8192);
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        root.iteratorForAppenders().forEachRemaining(appenders::add);
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof AsyncAppenderBase) {
+                continue;
+            }
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_" + appender.getName());
+            async.setQueueSize(queueSize);
+            async.setNeverBlock(true);
+            async.addAppender(appender);
+            async.start();
+            // Attach before detaching so no event in between is lost
+            root.addAppender(async);
+            root.detachAppender(appender);
+        }
+    }
+}
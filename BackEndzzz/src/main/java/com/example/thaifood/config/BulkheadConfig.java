@@ -0,0 +1,81 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.Bulkhead;
+import com.example.thaifood.jdbc.Bulkheads;
+import com.example.thaifood.jdbc.LimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Connection bulkheads. With {@code thaifood.bulkhead.enabled=true} (the default) the pool is split
+ * between order writes, reads and back-office work (diagnostics, catalog edits, background jobs), so
+ * a slow metadata scan or a long dump cannot take the connections order inserts need. With bulkheads
+ * off, virtual-thread mode still gets a single shared limiter sized to the pool.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    @Bean
+    public Bulkheads bulkheads(Environment env) {
+        if (!env.getProperty("thaifood.bulkhead.enabled", Boolean.class, true)) {
+            int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+            long timeout = env.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+            return new Bulkheads(List.of(new Bulkhead("shared", poolSize, timeout, Integer.MAX_VALUE)), "shared");
+        }
+        return new Bulkheads(List.of(
+                bulkhead(env, Bulkheads.ORDERS, 2, 5000, 200),
+                bulkhead(env, Bulkheads.READS, 2, 2000, 200),
+                bulkhead(env, Bulkheads.BACKOFFICE, 1, 1000, 10)), Bulkheads.BACKOFFICE);
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(Bulkheads bulkheads) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(new BulkheadFilter(bulkheads));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceLimiter(Environment env, ObjectProvider<Bulkheads> bulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof LimitedDataSource) {
+                    return bean;
+                }
+                boolean enabled = env.getProperty("thaifood.bulkhead.enabled", Boolean.class, true);
+                boolean virtual = env.getProperty("thaifood.threads.virtual", Boolean.class, false);
+                if (!enabled && !virtual) {
+                    return bean;
+                }
+                Bulkheads limits = bulkheads.getObject();
+                if (bean instanceof HikariDataSource hikari && limits.totalPermits() > hikari.getMaximumPoolSize()) {
+                    logger.warn("Bulkheads hand out {} permits but the pool has {} connections; writes are not guaranteed a share",
+                            limits.totalPermits(), hikari.getMaximumPoolSize());
+                }
+                logger.info("Database access for '{}' limited by bulkheads {}", beanName, limits.stats().keySet());
+                return new LimitedDataSource((DataSource) bean, limits);
+            }
+        };
+    }
+
+    private static Bulkhead bulkhead(Environment env, String name, int permits, long queueTimeoutMillis, int maxWaiters) {
+        String prefix = "thaifood.bulkhead." + name + ".";
+        return new Bulkhead(name,
+                env.getProperty(prefix + "permits", Integer.class, permits),
+                env.getProperty(prefix + "queue-timeout-ms", Long.class, queueTimeoutMillis),
+                env.getProperty(prefix + "max-waiters", Integer.class, maxWaiters));
+    }
+}
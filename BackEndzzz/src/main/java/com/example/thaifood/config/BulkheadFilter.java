@@ -0,0 +1,142 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.BulkheadFullException;
+import com.example.thaifood.jdbc.Bulkheads;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Assigns each API request to a bulkhead for the connections it opens. When the bulkhead turns the
+ * request away, whatever error response the handler produces is discarded and a 503 with
+ * Retry-After is sent instead.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkheads bulkheads;
+
+    public BulkheadFilter(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    static String classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (path.startsWith("/api/test")) {
+            return Bulkheads.BACKOFFICE;
+        }
+        if (method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")) {
+            return Bulkheads.READS;
+        }
+        return path.startsWith("/api/orders") ? Bulkheads.ORDERS : Bulkheads.BACKOFFICE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // State lives on the scope, not the thread: the body may be written on an async thread
+        Bulkheads.Scope scope = new Bulkheads.Scope(classify(request));
+        try {
+            bulkheads.call(scope, () -> {
+                chain.doFilter(request, new RejectableResponse(response, scope));
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            if (!scope.isRejected()) {
+                throw e;
+            }
+        } catch (Exception e) {
+            throw new ServletException(e);
+        } finally {
+            BulkheadFullException rejection = scope.getRejection();
+            if (rejection != null && !response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader("Retry-After", "1");
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write(rejection.getMessage());
+            }
+        }
+    }
+
+    // Drops the handler's own status and body once the request has been rejected
+    private static final class RejectableResponse extends HttpServletResponseWrapper {
+
+        private final Bulkheads.Scope scope;
+
+        RejectableResponse(HttpServletResponse response, Bulkheads.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            if (!scope.isRejected()) {
+                super.setStatus(sc);
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            if (!scope.isRejected()) {
+                super.sendError(sc);
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            if (!scope.isRejected()) {
+                super.sendError(sc, msg);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return scope.isRejected() ? new DiscardingOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return scope.isRejected() ? new PrintWriter(OutputStream.nullOutputStream()) : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!scope.isRejected()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static final class DiscardingOutputStream extends ServletOutputStream {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
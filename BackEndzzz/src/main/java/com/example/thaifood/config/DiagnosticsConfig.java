@@ -0,0 +1,35 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.StatementDiagnostics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Slow-query log and N+1 detection behind /api/test/slow-queries and /api/test/n-plus-one. Fed by
+ * the statement interceptor set up in {@link MetricsConfig}, so it needs
+ * {@code thaifood.metrics.sql.enabled}; {@code thaifood.diagnostics.enabled=false} turns it off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "thaifood.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class DiagnosticsConfig {
+
+    @Bean
+    public StatementDiagnostics statementDiagnostics(Environment env) {
+        return new StatementDiagnostics(
+                env.getProperty("thaifood.diagnostics.slow-query-ms", Long.class, 200L),
+                env.getProperty("thaifood.diagnostics.slow-query-capacity", Integer.class, 100),
+                env.getProperty("thaifood.diagnostics.n-plus-one-threshold", Integer.class, 10),
+                env.getProperty("thaifood.diagnostics.n-plus-one-capacity", Integer.class, 100));
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementDiagnosticsFilter> statementDiagnosticsFilter(StatementDiagnostics diagnostics) {
+        FilterRegistrationBean<StatementDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new StatementDiagnosticsFilter(diagnostics));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
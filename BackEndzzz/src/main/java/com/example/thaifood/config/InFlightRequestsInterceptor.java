@@ -0,0 +1,74 @@
+package com.example.thaifood.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests currently inside each endpoint, as {@code http.server.requests.in.flight} tagged like
+ * {@code http.server.requests}. Spring's own active-request timer starts before the handler is
+ * known and so has no uri tag; this counts from handler selection on. A streamed (async) response
+ * leaves the count when the handler returns and enters it again for the async dispatch.
+ */
+public class InFlightRequestsInterceptor implements AsyncHandlerInterceptor {
+
+    static final String METRIC = "http.server.requests.in.flight";
+    private static final String ATTRIBUTE = InFlightRequestsInterceptor.class.getName() + ".counter";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, AtomicInteger> byEndpoint = new ConcurrentHashMap<>();
+
+    public InFlightRequestsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        String key = method + ' ' + uri;
+        AtomicInteger counter = byEndpoint.get(key);
+        if (counter == null) {
+            counter = byEndpoint.computeIfAbsent(key, k -> register(method, uri));
+        }
+        counter.incrementAndGet();
+        request.setAttribute(ATTRIBUTE, counter);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        leave(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        leave(request);
+    }
+
+    private void leave(HttpServletRequest request) {
+        Object counter = request.getAttribute(ATTRIBUTE);
+        if (counter != null) {
+            request.removeAttribute(ATTRIBUTE);
+            ((AtomicInteger) counter).decrementAndGet();
+        }
+    }
+
+    private AtomicInteger register(String method, String uri) {
+        AtomicInteger counter = new AtomicInteger();
+        Gauge.builder(METRIC, counter, AtomicInteger::get)
+                .description("Requests currently being handled, per endpoint")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+        return counter;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.Bulkhead;
+import com.example.thaifood.jdbc.Bulkheads;
+import com.example.thaifood.jdbc.MeteredDataSource;
+import com.example.thaifood.jdbc.StatementDiagnostics;
+import com.example.thaifood.jdbc.StatementMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrics served at {@code /actuator/prometheus}. Spring Boot already records
+ * {@code http.server.requests} (latency and status per endpoint) and the Hikari pool
+ * ({@code hikaricp.connections.*}: active, idle, pending, acquire time); this adds in-flight requests
+ * per endpoint, per-statement-shape SQL timings and row counts ({@code thaifood.jdbc.*}, switched
+ * off with {@code thaifood.metrics.sql.enabled=false}) and the connection bulkheads, where requests
+ * queue before they reach the pool.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsConfig.class);
+
+    @Bean
+    public StatementMetrics statementMetrics(MeterRegistry registry, Environment env) {
+        return new StatementMetrics(registry, env.getProperty("thaifood.metrics.sql.max-shapes", Integer.class, 500));
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceMetrics(Environment env, ObjectProvider<StatementMetrics> metrics,
+                                                      ObjectProvider<StatementDiagnostics> diagnostics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof MeteredDataSource
+                        || !env.getProperty("thaifood.metrics.sql.enabled", Boolean.class, true)) {
+                    return bean;
+                }
+                logger.info("SQL statement metrics enabled for '{}'", beanName);
+                return new MeteredDataSource((DataSource) bean, metrics.getObject(), diagnostics.getIfAvailable());
+            }
+        };
+    }
+
+    @Bean
+    public InFlightRequestsInterceptor inFlightRequestsInterceptor(MeterRegistry registry) {
+        return new InFlightRequestsInterceptor(registry);
+    }
+
+    @Bean
+    public WebMvcConfigurer inFlightRequests(InFlightRequestsInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(Bulkheads bulkheads) {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheads.all()) {
+                Gauge.builder("thaifood.bulkhead.available", bulkhead, Bulkhead::getAvailable)
+                        .description("Connection permits free in the bulkhead")
+                        .tag("bulkhead", bulkhead.getName())
+                        .register(registry);
+                Gauge.builder("thaifood.bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                        .description("Threads queued for a connection permit")
+                        .tag("bulkhead", bulkhead.getName())
+                        .register(registry);
+                FunctionCounter.builder("thaifood.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                        .description("Requests turned away with 503, queue full or timed out")
+                        .tag("bulkhead", bulkhead.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.ReplicaRouter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks GET/HEAD requests as read-only for {@link ReplicaRouter} and remembers which client wrote
+ * last, for read-your-writes. A client is identified by its X-Client-Id header, else its address.
+ */
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final ReplicaRouter router;
+
+    public ReadRoutingFilter(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = request.getHeader(CLIENT_HEADER);
+        if (client == null || client.isBlank()) {
+            client = request.getRemoteAddr();
+        }
+        String method = request.getMethod();
+        boolean readOnly = method.equals("GET") || method.equals("HEAD");
+        if (!readOnly) {
+            router.recordWrite(client);
+        }
+        try {
+            router.call(new ReplicaRouter.Context(readOnly, client), () -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        } finally {
+            // Again at the end: the window runs from when the write finished, not when it started
+            if (!readOnly) {
+                router.recordWrite(client);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-replica routing, active when {@code thaifood.replicas.urls} is set. Replaces the
+ * auto-configured pool with a primary pool plus one pool per replica behind a {@link ReplicaRouter}.
+ * The lazy proxy defers picking a target until the first statement, by which time a read-only
+ * transaction has been marked as such.
+ */
+@Configuration
+@ConditionalOnProperty(name = "thaifood.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(DataSourceProperties properties, Environment env, ResourceLoader resourceLoader,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        // These pools are not beans, so Spring Boot does not bind their hikaricp.* metrics itself
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+
+        List<String> urls = List.of(env.getRequiredProperty("thaifood.replicas.urls").split("\\s*,\\s*"));
+        String[] weights = env.getProperty("thaifood.replicas.weights", "").split("\\s*,\\s*");
+        String[] initScripts = env.getProperty("thaifood.replicas.init-scripts", "").split("\\s*,\\s*");
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        Map<String, Integer> weightByName = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(env.getProperty("thaifood.replicas.username", properties.determineUsername()));
+            pool.setPassword(env.getProperty("thaifood.replicas.password", properties.determinePassword()));
+            pool.setMaximumPoolSize(env.getProperty("thaifood.replicas.pool-size", Integer.class,
+                    primary.getMaximumPoolSize()));
+            pool.setMinimumIdle(1);
+            // A replica that is down at startup must not stop the application
+            pool.setInitializationFailTimeout(-1);
+            if (registry != null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+
+            // Only for local stand-ins (replica-local profile); real replicas get their data from the primary
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            populator.setSqlScriptEncoding("UTF-8");
+            for (String script : initScripts) {
+                if (!script.isBlank()) {
+                    populator.addScript(resourceLoader.getResource(script));
+                }
+            }
+            if (initScripts.length > 0 && !initScripts[0].isBlank()) {
+                DatabasePopulatorUtils.execute(populator, pool);
+            }
+
+            pools.put(name, pool);
+            weightByName.put(name, i < weights.length && !weights[i].isBlank() ? Integer.parseInt(weights[i]) : 1);
+        }
+        return new ReplicaRouter(primary, pools, weightByName,
+                env.getProperty("thaifood.replicas.sticky-window-ms", Long.class, 5000L));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(replicaRouter.getDataSource());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadRoutingFilter> readRoutingFilter(ReplicaRouter replicaRouter) {
+        FilterRegistrationBean<ReadRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ReadRoutingFilter(replicaRouter));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.StatementDiagnostics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Scopes statement counting to one API request for the N+1 detector. Findings are labelled with
+ * the matched URI pattern (GET /api/menus/{id}) rather than the raw path.
+ */
+public class StatementDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final StatementDiagnostics diagnostics;
+
+    public StatementDiagnosticsFilter(StatementDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        diagnostics.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            diagnostics.end(pattern != null ? request.getMethod() + " " + pattern : null);
+        }
+    }
+}
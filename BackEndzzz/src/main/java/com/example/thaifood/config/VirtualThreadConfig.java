@@ -0,0 +1,64 @@
+package com.example.thaifood.config;
+
+import com.example.thaifood.jdbc.LimitedDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual-thread mode ({@code thaifood.threads.virtual=true}): Tomcat request handling and MVC
+ * async work (streamed responses) run on virtual threads, and database access is capped by a
+ * {@link LimitedDataSource} sized to the Hikari pool (see {@link BulkheadConfig}). The build targets
+ * Java 17, so the virtual-thread executor is looked up at runtime; on an older JVM the mode falls
+ * back to platform threads and only the limiter applies.
+ */
+@Configuration
+@ConditionalOnProperty(name = "thaifood.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Tomcat requests run on virtual threads");
+            }
+        };
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        return new TaskExecutorAdapter(executor != null ? executor : Executors.newCachedThreadPool());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() exists from Java 21 only
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            logger.warn("Virtual threads are not available on Java {}, keeping platform threads",
+                    Runtime.version().feature());
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create virtual-thread executor", e);
+        }
+    }
+}
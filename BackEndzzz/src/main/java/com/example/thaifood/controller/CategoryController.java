@@ -1,8 +1,15 @@
 package com.example.thaifood.controller;
 
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.cache.SecondLevelCache;
+import com.example.thaifood.jdbc.JsonRowStreamer;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.jdbc.row.CategoryRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
@@ -20,61 +27,67 @@ public class CategoryController {
     @Autowired
     private DataSource dataSource;
 
-    // Discover columns at runtime to avoid hard-coded column name mismatches
-    private List<String> discoverColumns(Connection conn, String tableName) throws SQLException {
-        List<String> cols = new ArrayList<>();
-        DatabaseMetaData meta = conn.getMetaData();
-        try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
-            while (rs.next()) {
-                cols.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-        return cols;
-    }
+    // Columns are discovered once and cached rather than queried per request
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private JsonRowStreamer rowStreamer;
+
+    // Serialized response bodies, invalidated by every category write
+    @Autowired
+    private JsonResponseCache jsonCache;
+
+    // Inserts bypass Hibernate, so the entity and query caches are evicted by hand
+    @Autowired
+    private SecondLevelCache secondLevelCache;
 
     @GetMapping
     public ResponseEntity<?> getAllCategories() {
-        List<Map<String, Object>> categories = new ArrayList<>();
+        try {
+            return JsonResponseCache.toResponse(jsonCache.get("categories", "list", this::loadAllCategories));
+        } catch (Exception e) {
+            logger.error("Error fetching categories", e);
+            return ResponseEntity.internalServerError()
+                    .body("Error fetching categories: " + e.getMessage());
+        }
+    }
 
+    private List<CategoryRow> loadAllCategories() throws SQLException {
         try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "categories");
-            if (cols.isEmpty()) {
-                return ResponseEntity.internalServerError().body("No columns found for table 'categories'");
+            TableSchema schema = schemaRegistry.get(conn, "categories");
+            if (schema.isEmpty()) {
+                throw new SQLException("No columns found for table 'categories'");
             }
 
             String sql = "SELECT * FROM categories";
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
-
-                while (rs.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (String c : cols) {
-                        row.put(c, rs.getObject(c));
-                    }
-                    categories.add(row);
-                    logger.debug("Row: {}", row);
-                }
+                List<CategoryRow> categories = CategoryRow.MAPPER.mapAll(sql, rs);
+                logger.debug("Loaded {} category rows", categories.size());
+                return categories;
             }
-
-            return ResponseEntity.ok(categories);
-        } catch (Exception e) {
-            logger.error("Error fetching categories", e);
-            return ResponseEntity.internalServerError()
-                    .body("Error fetching categories: " + e.getMessage());
         }
     }
 
+    // Streams every row straight from the database instead of building the list in memory
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamCategories() {
+        return rowStreamer.streamArray("SELECT * FROM categories", List.of());
+    }
+
     @PostMapping
-    public ResponseEntity<?> createCategory(@RequestBody Map<String, Object> categoryRequest) {
+    public ResponseEntity<?> createCategory(@RequestBody Map<String, Object> categoryRequest,
+                                            @RequestParam(defaultValue = "false") boolean returnRow) {
         try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "categories");
-            if (cols.isEmpty()) {
+            TableSchema schema = schemaRegistry.get(conn, "categories");
+            if (schema.isEmpty()) {
                 return ResponseEntity.internalServerError().body("No columns found for table 'categories'");
             }
 
             // Determine required name column(s)
-            boolean hasCategoryName = cols.stream().anyMatch(c -> c.equalsIgnoreCase("category_name"));
-            boolean hasName = cols.stream().anyMatch(c -> c.equalsIgnoreCase("name"));
+            boolean hasCategoryName = schema.hasColumn("category_name");
+            boolean hasName = schema.hasColumn("name");
 
             String providedName = (String) categoryRequest.getOrDefault("category_name", categoryRequest.get("name"));
             if ((hasCategoryName || hasName) && (providedName == null || providedName.toString().trim().isEmpty())) {
@@ -96,12 +109,12 @@ public class CategoryController {
                 insertVals.add(providedName);
             }
             // description
-            if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("description"))) {
+            if (schema.hasColumn("description")) {
                 insertCols.add("description");
                 insertVals.add(categoryRequest.getOrDefault("description", null));
             }
             // created_at
-            if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("created_at"))) {
+            if (schema.hasColumn("created_at")) {
                 insertCols.add("created_at");
                 insertVals.add(Timestamp.valueOf(LocalDateTime.now()));
             }
@@ -142,16 +155,13 @@ public class CategoryController {
                         Object pkVal = gk.getObject(1);
 
                         // fetch the created row using the PK if we can identify it
-                        String fetchSql = null;
-                        if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("category_id"))) {
-                            fetchSql = "SELECT * FROM categories WHERE category_id = ?";
-                        } else if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("id"))) {
-                            fetchSql = "SELECT * FROM categories WHERE id = ?";
-                        } else if (pkCol != null) {
-                            fetchSql = "SELECT * FROM categories WHERE " + pkCol + " = ?";
+                        String keyCol = schema.primaryKeyOr("category_id", "id");
+                        if (keyCol == null) {
+                            keyCol = pkCol;
                         }
+                        String fetchSql = keyCol != null ? "SELECT * FROM categories WHERE " + keyCol + " = ?" : null;
 
-                        if (fetchSql != null) {
+                        if (returnRow && fetchSql != null) {
                             try (PreparedStatement fetch = conn.prepareStatement(fetchSql)) {
                                 fetch.setObject(1, pkVal);
                                 try (ResultSet rs = fetch.executeQuery()) {
@@ -164,6 +174,9 @@ public class CategoryController {
                                     }
                                 }
                             }
+                        } else {
+                            // ประกอบ row จากค่าที่ insert + key + default ใน schema ไม่ต้อง SELECT ซ้ำ
+                            created.putAll(schema.rowFromInsert(insertCols, insertVals, pkVal));
                         }
                     }
                 }
@@ -175,6 +188,8 @@ public class CategoryController {
                     }
                 }
 
+                jsonCache.invalidate("categories");
+                secondLevelCache.evictCategories();
                 return ResponseEntity.ok(created);
             }
 
@@ -185,20 +200,26 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable Object id) {
-        try (Connection conn = dataSource.getConnection()) {
-            // try several PK column names
-            String[] candidates = new String[]{"category_id", "id", "categoryId"};
-            String foundCol = null;
-            List<String> cols = discoverColumns(conn, "categories");
-            for (String c : candidates) {
-                if (cols.stream().anyMatch(x -> x.equalsIgnoreCase(c))) {
-                    foundCol = cols.stream().filter(x -> x.equalsIgnoreCase(c)).findFirst().get();
-                    break;
-                }
+    public ResponseEntity<?> getCategoryById(@PathVariable Long id) {
+        try {
+            byte[] body = jsonCache.get("categories", id, () -> findCategoryRow(id));
+            if (body == null) {
+                return ResponseEntity.notFound().build();
             }
+            return JsonResponseCache.toResponse(body);
+        } catch (Exception e) {
+            logger.error("Error fetching category", e);
+            return ResponseEntity.internalServerError().body("Error fetching category: " + e.getMessage());
+        }
+    }
+
+    private CategoryRow findCategoryRow(Long id) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            // declared PK first, then several common PK column names
+            TableSchema schema = schemaRegistry.get(conn, "categories");
+            String foundCol = schema.primaryKeyOr("category_id", "id", "categoryId");
             if (foundCol == null) {
-                return ResponseEntity.internalServerError().body("No PK column found for categories");
+                throw new SQLException("No PK column found for categories");
             }
 
             String sql = "SELECT * FROM categories WHERE " + foundCol + " = ?";
@@ -206,20 +227,12 @@ public class CategoryController {
                 pstmt.setObject(1, id);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        Map<String, Object> row = new LinkedHashMap<>();
-                        ResultSetMetaData md = rs.getMetaData();
-                        for (int i = 1; i <= md.getColumnCount(); i++) {
-                            row.put(md.getColumnName(i), rs.getObject(i));
-                        }
-                        return ResponseEntity.ok(row);
+                        return CategoryRow.MAPPER.mapRow(sql, rs);
                     }
                 }
             }
 
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            logger.error("Error fetching category", e);
-            return ResponseEntity.internalServerError().body("Error fetching category: " + e.getMessage());
+            return null;
         }
     }
 }
@@ -1,13 +1,29 @@
 package com.example.thaifood.controller;
 
+import com.example.thaifood.cache.IdempotencyStore;
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.cache.MenuCatalog;
+import com.example.thaifood.cache.SecondLevelCache;
+import com.example.thaifood.jdbc.Bulkheads;
+import com.example.thaifood.jdbc.JsonRowStreamer;
+import com.example.thaifood.jdbc.LimitedDataSource;
+import com.example.thaifood.jdbc.ReplicaRouter;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.StatementDiagnostics;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.service.CategoryService;
+import com.example.thaifood.service.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,6 +40,39 @@ public class DatabaseTestController {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JsonResponseCache jsonCache;
+
+    @Autowired
+    private JsonRowStreamer rowStreamer;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired(required = false)
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired(required = false)
+    private StatementDiagnostics statementDiagnostics;
+
     @GetMapping("/connection")
     public Map<String, Object> testConnection() {
         Map<String, Object> result = new HashMap<>();
@@ -61,7 +110,7 @@ public class DatabaseTestController {
                 while (rs.next()) {
                     String tableName = rs.getString("TABLE_NAME");
                     tables.add(tableName);
-                    logger.info("Found table: {}", tableName);
+                    logger.debug("Found table: {}", tableName);
                 }
             }
             
@@ -97,7 +146,7 @@ public class DatabaseTestController {
                     column.put("autoIncrement", rs.getString("IS_AUTOINCREMENT"));
                     columns.add(column);
                     
-                    logger.info("Column: {} - Type: {} - Nullable: {}", 
+                    logger.debug("Column: {} - Type: {} - Nullable: {}", 
                         rs.getString("COLUMN_NAME"), 
                         rs.getString("TYPE_NAME"),
                         rs.getString("IS_NULLABLE"));
@@ -117,6 +166,12 @@ public class DatabaseTestController {
         return result;
     }
 
+    // Same envelope as /raw-query, written row by row while the result set is read
+    @GetMapping(value = "/raw-query", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamRawQuery() {
+        return rowStreamer.streamEnvelope("SELECT * FROM categories");
+    }
+
     @GetMapping("/raw-query")
     public Map<String, Object> testRawQuery() {
         Map<String, Object> result = new HashMap<>();
@@ -140,7 +195,7 @@ public class DatabaseTestController {
                     row.put(columnName, rs.getObject(columnName));
                 }
                 rows.add(row);
-                logger.info("Raw row data: {}", row);
+                logger.debug("Raw row data: {}", row);
             }
             
             result.put("success", true);
@@ -156,4 +211,138 @@ public class DatabaseTestController {
         
         return result;
     }
-}
\ No newline at end of file
+
+    @GetMapping("/schema")
+    public Map<String, Object> getSchemaRegistry() {
+        Map<String, Object> result = new HashMap<>(schemaRegistry.stats());
+        result.put("schemas", describeSchemas(schemaRegistry.getSchemas()));
+        return result;
+    }
+
+    @PostMapping("/schema/refresh")
+    public Map<String, Object> refreshSchemaRegistry() {
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            Map<String, TableSchema> schemas = schemaRegistry.refresh();
+            result.put("success", true);
+            result.put("schemas", describeSchemas(schemas));
+            logger.info("Schema registry refreshed on demand");
+        } catch (Exception e) {
+            logger.error("Error refreshing schema registry", e);
+            result.put("success", false);
+            result.put("error", e.getMessage());
+        }
+
+        return result;
+    }
+
+    // Snapshot age, version and hit ratio of the in-memory menu catalog
+    @GetMapping("/catalog")
+    public Map<String, Object> getCatalogStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("menus", menuCatalog.stats());
+        result.put("json", jsonCache.stats());
+        return result;
+    }
+
+    @GetMapping("/single-flight")
+    public Map<String, Object> getSingleFlightStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("menuItems", menuItemService.getSingleFlightStats());
+        result.put("categories", categoryService.getSingleFlightStats());
+        // loads behind the raw-JDBC GET /{id} and list endpoints, per cache region
+        result.put("json", jsonCache.stats());
+        return result;
+    }
+
+    @GetMapping("/replicas")
+    public Map<String, Object> getReplicaStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", replicaRouter != null);
+        if (replicaRouter != null) {
+            result.putAll(replicaRouter.stats());
+        }
+        return result;
+    }
+
+    @GetMapping("/second-level-cache")
+    public Map<String, Object> getSecondLevelCacheStats() {
+        return secondLevelCache.stats();
+    }
+
+    @GetMapping("/idempotency")
+    public Map<String, Object> getIdempotencyStats() {
+        return idempotencyStore.stats();
+    }
+
+    @GetMapping("/bulkheads")
+    public Map<String, Object> getBulkheadStats() {
+        return bulkheads.stats();
+    }
+
+    @GetMapping("/threads")
+    public Map<String, Object> getThreadStats() {
+        Map<String, Object> result = new HashMap<>();
+        Thread current = Thread.currentThread();
+        result.put("javaVersion", Runtime.version().feature());
+        result.put("requestThread", current.toString());
+        // Thread.isVirtual() is Java 21+; a virtual thread's toString starts with "VirtualThread"
+        result.put("virtual", current.toString().startsWith("VirtualThread"));
+        try {
+            // the limiter may sit behind the metrics wrapper
+            if (dataSource.isWrapperFor(LimitedDataSource.class)) {
+                result.put("dbLimiter", dataSource.unwrap(LimitedDataSource.class).stats());
+            }
+        } catch (SQLException e) {
+            result.put("dbLimiter", e.getMessage());
+        }
+        return result;
+    }
+
+    // Slowest statements over thaifood.diagnostics.slow-query-ms, bind values redacted to their types
+    @GetMapping("/slow-queries")
+    public Map<String, Object> getSlowQueries(@RequestParam(defaultValue = "50") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", statementDiagnostics != null);
+        if (statementDiagnostics != null) {
+            result.putAll(statementDiagnostics.stats());
+            result.put("queries", statementDiagnostics.slowQueries(limit));
+        }
+        return result;
+    }
+
+    // Requests that ran one statement shape more than thaifood.diagnostics.n-plus-one-threshold times
+    @GetMapping("/n-plus-one")
+    public Map<String, Object> getNPlusOneFindings(@RequestParam(defaultValue = "50") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", statementDiagnostics != null);
+        if (statementDiagnostics != null) {
+            result.putAll(statementDiagnostics.stats());
+            result.put("findings", statementDiagnostics.nPlusOnes(limit));
+        }
+        return result;
+    }
+
+    @PostMapping("/diagnostics/reset")
+    public Map<String, Object> resetDiagnostics() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", statementDiagnostics != null);
+        if (statementDiagnostics != null) {
+            statementDiagnostics.clear();
+        }
+        return result;
+    }
+
+    private Map<String, Object> describeSchemas(Map<String, TableSchema> schemas) {
+        Map<String, Object> tables = new HashMap<>();
+        for (TableSchema schema : schemas.values()) {
+            Map<String, Object> table = new HashMap<>();
+            table.put("columns", schema.getColumns());
+            table.put("primaryKey", schema.getPrimaryKey());
+            table.put("loadedAt", schema.getLoadedAt());
+            tables.put(schema.getTableName(), table);
+        }
+        return tables;
+    }
+}
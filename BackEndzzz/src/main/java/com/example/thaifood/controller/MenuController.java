@@ -1,8 +1,19 @@
 package com.example.thaifood.controller;
 
+import com.example.thaifood.cache.CatalogSnapshot;
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.cache.SecondLevelCache;
+import com.example.thaifood.cache.MenuCatalog;
+import com.example.thaifood.jdbc.JsonRowStreamer;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.jdbc.row.MenuItemRow;
+import com.example.thaifood.service.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,57 +34,64 @@ public class MenuController {
     @Autowired
     private DataSource dataSource;
 
-    // ใช้ค้นหา column ของ table menus อัตโนมัติ
-    private List<String> discoverColumns(Connection conn, String tableName) throws SQLException {
-        List<String> cols = new ArrayList<>();
-        DatabaseMetaData meta = conn.getMetaData();
-        try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
-            while (rs.next()) {
-                cols.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-        return cols;
-    }
+    // column ของ table ถูกค้นหาครั้งเดียวแล้ว cache ไว้
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private JsonRowStreamer rowStreamer;
+
+    // snapshot ของเมนูใน memory อ่านได้โดยไม่ต้องไป query ทุกครั้ง
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    // JSON ที่ serialize แล้ว เขียนลง response ได้ทันที
+    @Autowired
+    private JsonResponseCache jsonCache;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    // insert ผ่าน JDBC ไม่ผ่าน Hibernate ต้องล้าง second-level cache เอง
+    @Autowired
+    private SecondLevelCache secondLevelCache;
 
     // GET /api/menus
     @GetMapping
     public ResponseEntity<?> getAllMenus() {
-        List<Map<String, Object>> menus = new ArrayList<>();
-        try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "menu_items");
-            if (cols.isEmpty()) {
-                return ResponseEntity.internalServerError().body("No columns found for table 'menus'");
-            }
-
-            String sql = "SELECT * FROM menu_items";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
-                while (rs.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (String c : cols) {
-                        row.put(c, rs.getObject(c));
-                    }
-                    menus.add(row);
-                }
-            }
-            return ResponseEntity.ok(menus);
+        try {
+            CatalogSnapshot<MenuItemRow> snapshot = menuCatalog.current();
+            // key ผูกกับ version ของ snapshot จึงไม่มีทางได้ bytes ของ snapshot เก่า
+            byte[] body = jsonCache.get("menus", "list@" + snapshot.getVersion(), snapshot::getItems);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Catalog-Version", String.valueOf(snapshot.getVersion()))
+                    .body(body);
         } catch (Exception e) {
             logger.error("Error fetching menus", e);
             return ResponseEntity.internalServerError().body("Error fetching menus: " + e.getMessage());
         }
     }
 
-    // POST /api/menus
+    // GET /api/menus?stream=true
+    // อ่านตรงจาก database แล้ว stream ออกไปทีละแถว (ไม่ผ่าน snapshot)
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamMenus() {
+        return rowStreamer.streamArray("SELECT * FROM menu_items", List.of());
+    }
+
+    // POST /api/menus  (?returnRow=true อ่าน row ที่สร้างกลับจาก database)
     @PostMapping
-    public ResponseEntity<?> createMenu(@RequestBody Map<String, Object> menuRequest) {
+    public ResponseEntity<?> createMenu(@RequestBody Map<String, Object> menuRequest,
+                                        @RequestParam(defaultValue = "false") boolean returnRow) {
         try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "menu_items");
-            if (cols.isEmpty()) {
+            TableSchema schema = schemaRegistry.get(conn, "menu_items");
+            if (schema.isEmpty()) {
                 return ResponseEntity.internalServerError().body("No columns found for table 'menus'");
             }
 
-            boolean hasMenuName = cols.stream().anyMatch(c -> c.equalsIgnoreCase("item_name"));
-            boolean hasName = cols.stream().anyMatch(c -> c.equalsIgnoreCase("name"));
+            boolean hasMenuName = schema.hasColumn("item_name");
+            boolean hasName = schema.hasColumn("name");
 
             String providedName = (String) menuRequest.getOrDefault("item_name", menuRequest.get("name"));
             if ((hasMenuName || hasName) && (providedName == null || providedName.toString().trim().isEmpty())) {
@@ -91,11 +109,11 @@ public class MenuController {
                 insertCols.add("name");
                 insertVals.add(providedName);
             }
-            if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("description"))) {
+            if (schema.hasColumn("description")) {
                 insertCols.add("description");
                 insertVals.add(menuRequest.getOrDefault("description", null));
             }
-            if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("created_at"))) {
+            if (schema.hasColumn("created_at")) {
                 insertCols.add("created_at");
                 insertVals.add(Timestamp.valueOf(LocalDateTime.now()));
             }
@@ -128,14 +146,10 @@ public class MenuController {
                     if (gk.next()) {
                         Object pkVal = gk.getObject(1);
 
-                        String fetchSql = null;
-                        if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("id_item"))) {
-                            fetchSql = "SELECT * FROM menu_items WHERE id_item = ?";
-                        } else if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("id"))) {
-                            fetchSql = "SELECT * FROM menu_items WHERE id = ?";
-                        }
+                        String keyCol = schema.primaryKeyOr("id_item", "id");
+                        String fetchSql = keyCol != null ? "SELECT * FROM menu_items WHERE " + keyCol + " = ?" : null;
 
-                        if (fetchSql != null) {
+                        if (returnRow && fetchSql != null) {
                             try (PreparedStatement fetch = conn.prepareStatement(fetchSql)) {
                                 fetch.setObject(1, pkVal);
                                 try (ResultSet rs = fetch.executeQuery()) {
@@ -148,11 +162,17 @@ public class MenuController {
                                     }
                                 }
                             }
+                        } else {
+                            // ประกอบ row จากค่าที่ insert + key + default ใน schema ไม่ต้อง SELECT ซ้ำ
+                            created.putAll(schema.rowFromInsert(insertCols, insertVals, pkVal));
                         }
                     }
                 }
             }
 
+            secondLevelCache.evictMenuItems();
+            // snapshot, JSON bytes และ single-flight ของเมนูสร้างใหม่จากที่เดียวกับ MenuItemService
+            menuItemService.menuItemsChanged();
             return ResponseEntity.ok(created);
         } catch (Exception e) {
             logger.error("Error creating menu", e);
@@ -160,21 +180,41 @@ public class MenuController {
         }
     }
 
+    // GET /api/menus/search?q=ผัดไทย&limit=20
+    // ค้นหาจาก n-gram index ใน memory เรียงตามความใกล้เคียง ไม่แตะ database
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMenus(@RequestParam("q") String query,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(menuItemService.searchMenuItems(query, Math.min(limit, 100)));
+        } catch (Exception e) {
+            logger.error("Error searching menus", e);
+            return ResponseEntity.internalServerError().body("Error searching menus: " + e.getMessage());
+        }
+    }
+
     // GET /api/menus/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<?> getMenuById(@PathVariable Object id) {
-        try (Connection conn = dataSource.getConnection()) {
-            String[] candidates = new String[]{"id_item", "id", "Iditem"};
-            String foundCol = null;
-            List<String> cols = discoverColumns(conn, "menu_items");
-            for (String c : candidates) {
-                if (cols.stream().anyMatch(x -> x.equalsIgnoreCase(c))) {
-                    foundCol = cols.stream().filter(x -> x.equalsIgnoreCase(c)).findFirst().get();
-                    break;
-                }
+    public ResponseEntity<?> getMenuById(@PathVariable Long id) {
+        try {
+            // key เป็น Long ที่ parse แล้ว ("7" กับ "007" เป็น entry เดียวกัน) และ cache เฉพาะที่เจอ
+            byte[] body = jsonCache.get("menus", id, () -> findMenuRow(id));
+            if (body == null) {
+                return ResponseEntity.notFound().build();
             }
+            return JsonResponseCache.toResponse(body);
+        } catch (Exception e) {
+            logger.error("Error fetching menu", e);
+            return ResponseEntity.internalServerError().body("Error fetching menu: " + e.getMessage());
+        }
+    }
+
+    private MenuItemRow findMenuRow(Long id) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "menu_items");
+            String foundCol = schema.primaryKeyOr("id_item", "id", "Iditem");
             if (foundCol == null) {
-                return ResponseEntity.internalServerError().body("No PK column found for menus");
+                throw new SQLException("No PK column found for menus");
             }
 
             String sql = "SELECT * FROM menu_items WHERE " + foundCol + " = ?";
@@ -182,19 +222,11 @@ public class MenuController {
                 pstmt.setObject(1, id);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        Map<String, Object> row = new LinkedHashMap<>();
-                        ResultSetMetaData md = rs.getMetaData();
-                        for (int i = 1; i <= md.getColumnCount(); i++) {
-                            row.put(md.getColumnName(i), rs.getObject(i));
-                        }
-                        return ResponseEntity.ok(row);
+                        return MenuItemRow.MAPPER.mapRow(sql, rs);
                     }
                 }
             }
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            logger.error("Error fetching menu", e);
-            return ResponseEntity.internalServerError().body("Error fetching menu: " + e.getMessage());
+            return null;
         }
     }
 }
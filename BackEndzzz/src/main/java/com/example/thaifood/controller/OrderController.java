@@ -1,19 +1,39 @@
 package com.example.thaifood.controller;
 
+import com.example.thaifood.cache.IdempotencyStore;
+import com.example.thaifood.jdbc.JsonRowStreamer;
+import com.example.thaifood.jdbc.KeysetCursor;
+import com.example.thaifood.jdbc.OrderInserts;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.jdbc.row.OrderRow;
+import com.example.thaifood.jdbc.row.RowShape;
+import com.example.thaifood.model.OrderStatus;
+import com.example.thaifood.pricing.PriceQuote;
+import com.example.thaifood.pricing.PricingEngine;
+import com.example.thaifood.service.OrderBoard;
+import com.example.thaifood.service.OrderIntake;
+import com.example.thaifood.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/orders")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "X-Next-Cursor")
 public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
@@ -21,126 +41,296 @@ public class OrderController {
     @Autowired
     private DataSource dataSource;
 
-    // ค้นหา column อัตโนมัติ
-    private List<String> discoverColumns(Connection conn, String tableName) throws SQLException {
-        List<String> cols = new ArrayList<>();
-        DatabaseMetaData meta = conn.getMetaData();
-        try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
-            while (rs.next()) {
-                cols.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-        return cols;
-    }
+    // column ของ table ถูกค้นหาครั้งเดียวแล้ว cache ไว้
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private JsonRowStreamer rowStreamer;
+
+    @Autowired
+    private OrderBoard orderBoard;
+
+    @Autowired
+    private OrderIntake orderIntake;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${thaifood.orders.default-page-size:50}")
+    private int defaultPageSize;
 
-    // GET /api/orders
+    @Value("${thaifood.orders.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${thaifood.orders.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    // GET /api/orders?limit=&cursor=&status=&from=&to=&customer=
+    // แบ่งหน้าแบบ keyset เรียงจากใหม่ไปเก่าตาม (order_date, id) จะไม่ดึงทั้งตารางอีก
+    // หน้าถัดไปส่งกลับใน header X-Next-Cursor (ไม่มี header = หน้าสุดท้าย)
+    // ควรมี index บน orders (order_date, id) เพื่อให้แต่ละหน้าเป็น range scan
     @GetMapping
-    public ResponseEntity<?> getAllOrders() {
-        List<Map<String, Object>> orders = new ArrayList<>();
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String from,
+                                          @RequestParam(required = false) String to,
+                                          @RequestParam(required = false) String customer) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        KeysetCursor after;
+        LocalDateTime fromDate;
+        LocalDateTime toDate;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            fromDate = parseDateParam(from, false);
+            toDate = parseDateParam(to, true);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid paging parameter: " + e.getMessage());
+        }
+
+        List<OrderRow> orders = new ArrayList<>();
         try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "orders");
-            if (cols.isEmpty()) {
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            if (schema.isEmpty()) {
                 return ResponseEntity.internalServerError().body("No columns found for table 'orders'");
             }
+            String dateCol = schema.column("order_date");
+            String idCol = schema.primaryKeyOr("id");
+            if (dateCol == null || idCol == null) {
+                return ResponseEntity.internalServerError().body("Paging requires order_date and id columns on 'orders'");
+            }
+
+            List<Object> params = new ArrayList<>();
+            StringBuilder sql;
+            try {
+                sql = buildOrderQuery(schema, dateCol, idCol, status, customer, fromDate, toDate, after, params);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+            // ดึงเกินมา 1 แถวเพื่อรู้ว่ายังมีหน้าถัดไปหรือไม่
+            sql.append(" ORDER BY ").append(dateCol).append(" DESC, ").append(idCol).append(" DESC LIMIT ?");
+            params.add(pageSize + 1);
 
-            String sql = "SELECT * FROM orders";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
-                while (rs.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (String c : cols) {
-                        row.put(c, rs.getObject(c));
+            KeysetCursor next = null;
+            String query = sql.toString();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    RowShape shape = OrderRow.MAPPER.shape(query, rs);
+                    while (rs.next()) {
+                        if (orders.size() == pageSize) {
+                            OrderRow last = orders.get(orders.size() - 1);
+                            next = new KeysetCursor(last.orderDate(), last.id());
+                            break;
+                        }
+                        orders.add(OrderRow.MAPPER.mapRow(rs, shape));
                     }
-                    orders.add(row);
                 }
             }
-            return ResponseEntity.ok(orders);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (next != null) {
+                response.header("X-Next-Cursor", next.encode());
+            }
+            return response.body(orders);
         } catch (Exception e) {
             logger.error("Error fetching orders", e);
             return ResponseEntity.internalServerError().body("Error fetching orders: " + e.getMessage());
         }
     }
 
-    // POST /api/orders
-    @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderRequest) {
-        try (Connection conn = dataSource.getConnection()) {
-            List<String> cols = discoverColumns(conn, "orders");
-            if (cols.isEmpty()) {
-                return ResponseEntity.internalServerError().body("No columns found for table 'orders'");
+    // GET /api/orders?stream=true (รับ filter และ cursor เหมือนกัน)
+    // stream ทุกแถวที่ตรงเงื่อนไขออกไปทีละแถว ไม่จำกัดจำนวน และไม่เก็บผลลัพธ์ทั้งหมดไว้ใน memory
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) String from,
+                                                              @RequestParam(required = false) String to,
+                                                              @RequestParam(required = false) String customer) {
+        try {
+            KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            TableSchema schema = schemaRegistry.get("orders");
+            String dateCol = schema.column("order_date");
+            String idCol = schema.primaryKeyOr("id");
+            if (dateCol == null || idCol == null) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Streaming requires order_date and id columns on 'orders'");
             }
 
-            List<String> insertCols = new ArrayList<>();
-            List<Object> insertVals = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            StringBuilder sql = buildOrderQuery(schema, dateCol, idCol, status, customer,
+                    parseDateParam(from, false), parseDateParam(to, true), after, params);
+            sql.append(" ORDER BY ").append(dateCol).append(" DESC, ").append(idCol).append(" DESC");
+            return rowStreamer.streamArray(sql.toString(), params);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid stream parameter: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            logger.error("Error streaming orders", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error streaming orders: " + e.getMessage(), e);
+        }
+    }
 
-            if (cols.contains("customer_id")) {
-                insertCols.add("customer_id");
-                insertVals.add(orderRequest.get("customer_id"));
-            }
-            if (cols.contains("order_date")) {
-                insertCols.add("order_date");
-                Object od = orderRequest.getOrDefault("order_date", Timestamp.valueOf(LocalDateTime.now()));
-                insertVals.add(od instanceof String ? Timestamp.valueOf((String) od) : od);
-            }
-            if (cols.contains("status")) {
-                insertCols.add("status");
-                insertVals.add(orderRequest.getOrDefault("status", "pending"));
+    // SELECT ที่ใช้ร่วมกันระหว่างแบบแบ่งหน้าและแบบ stream; ค่า parameter ถูกเติมลงใน params ตามลำดับ
+    // order ที่ไม่มี order_date ยังอยู่ในผลลัพธ์: ORDER BY date DESC ของ MySQL เรียง NULL ไว้ท้ายสุด
+    // ตาม id DESC และ cursor ที่ date เป็น null ก็เดินต่อในกลุ่มนั้น
+    private StringBuilder buildOrderQuery(TableSchema schema, String dateCol, String idCol,
+                                          String status, String customer,
+                                          LocalDateTime fromDate, LocalDateTime toDate,
+                                          KeysetCursor after, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM orders WHERE 1 = 1");
+        if (status != null && !status.isBlank()) {
+            sql.append(" AND status = ?");
+            params.add(status);
+        }
+        if (customer != null && !customer.isBlank()) {
+            String customerCol = schema.column("customer_id") != null
+                    ? schema.column("customer_id") : schema.column("customer_name");
+            if (customerCol == null) {
+                throw new IllegalArgumentException("orders has no customer column to filter on");
             }
-            if (cols.contains("amount")) {
-                insertCols.add("amount");
-                insertVals.add(orderRequest.get("amount"));
+            sql.append(" AND ").append(customerCol).append(" = ?");
+            params.add(customer);
+        }
+        if (fromDate != null) {
+            sql.append(" AND ").append(dateCol).append(" >= ?");
+            params.add(Timestamp.valueOf(fromDate));
+        }
+        if (toDate != null) {
+            sql.append(" AND ").append(dateCol).append(" < ?");
+            params.add(Timestamp.valueOf(toDate));
+        }
+        if (after != null && after.getSortKey() == null) {
+            sql.append(" AND ").append(dateCol).append(" IS NULL AND ").append(idCol).append(" < ?");
+            params.add(after.getId());
+        } else if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.getSortKey());
+            sql.append(" AND (").append(dateCol).append(" < ? OR (")
+               .append(dateCol).append(" = ? AND ").append(idCol).append(" < ?) OR ")
+               .append(dateCol).append(" IS NULL)");
+            params.add(afterDate);
+            params.add(afterDate);
+            params.add(after.getId());
+        }
+        return sql;
+    }
+
+    // POST /api/orders  (?returnRow=true อ่าน row ที่สร้างกลับจาก database)
+    // ส่ง header Idempotency-Key มาด้วย: request ที่ retry ด้วย key เดิมจะได้ response แรกกลับไป ไม่ insert ซ้ำ
+    @PostMapping
+    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderRequest,
+                                         @RequestParam(defaultValue = "false") boolean returnRow,
+                                         @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return insertOrder(orderRequest, returnRow);
+        }
+        return idempotencyStore.execute(idempotencyKey, List.of(orderRequest, returnRow),
+                () -> insertOrder(orderRequest, returnRow));
+    }
+
+    private ResponseEntity<?> insertOrder(Map<String, Object> orderRequest, boolean returnRow) {
+        // คิดราคาฝั่ง server จาก items เสมอ amount ที่ client ส่งมาไม่ถูกใช้
+        PriceQuote quote;
+        try {
+            quote = pricingEngine.quote(orderRequest);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Map<String, Object> values = new LinkedHashMap<>(orderRequest);
+        values.put("amount", quote.totalBaht());
+
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            if (schema.isEmpty()) {
+                return ResponseEntity.internalServerError().body("No columns found for table 'orders'");
             }
 
+            List<String> insertCols = OrderInserts.columns(schema);
+            List<Object> insertVals = OrderInserts.values(insertCols, values);
+
             if (insertCols.isEmpty()) {
                 return ResponseEntity.badRequest().body("No supported columns to insert");
             }
 
-            StringJoiner sjCols = new StringJoiner(", ");
-            StringJoiner sjParams = new StringJoiner(", ");
-            for (int i = 0; i < insertCols.size(); i++) {
-                sjCols.add(insertCols.get(i));
-                sjParams.add("?");
+            List<String> itemCols = OrderInserts.itemColumns(schemaRegistry.get(conn, "order_items"));
+            if (itemCols.isEmpty()) {
+                return ResponseEntity.internalServerError().body("Table 'order_items' needs order_id and menu_id columns");
             }
 
-            String insertSql = "INSERT INTO orders (" + sjCols + ") VALUES (" + sjParams + ")";
+            String insertSql = OrderInserts.sql(insertCols, 1);
             logger.debug("Insert SQL: {}", insertSql);
 
             Map<String, Object> created = new LinkedHashMap<>();
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-                for (int i = 0; i < insertVals.size(); i++) {
-                    pstmt.setObject(i + 1, insertVals.get(i));
+            Object pkVal = null;
+            boolean autoCommit = conn.getAutoCommit();
+            // order กับรายการอาหารต้อง commit พร้อมกัน
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < insertVals.size(); i++) {
+                        pstmt.setObject(i + 1, insertVals.get(i));
+                    }
+                    int affected = pstmt.executeUpdate();
+                    if (affected == 0) {
+                        throw new SQLException("Insert affected 0 rows");
+                    }
+                    try (ResultSet gk = pstmt.getGeneratedKeys()) {
+                        if (gk.next()) {
+                            pkVal = gk.getObject(1);
+                        }
+                    }
+                }
+
+                if (!(pkVal instanceof Number orderId)) {
+                    throw new SQLException("No generated key for the order, cannot write its items");
                 }
-                int affected = pstmt.executeUpdate();
-                if (affected == 0) {
-                    throw new SQLException("Insert affected 0 rows");
+                try (PreparedStatement items = conn.prepareStatement(OrderInserts.itemSql(itemCols))) {
+                    OrderInserts.addItems(items, itemCols, orderId.longValue(), quote);
+                    items.executeBatch();
                 }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
 
-                try (ResultSet gk = pstmt.getGeneratedKeys()) {
-                    if (gk.next()) {
-                        Object pkVal = gk.getObject(1);
+            if (pkVal != null) {
+                if (pkVal instanceof Number) {
+                    orderBoard.onInserted(((Number) pkVal).longValue(), insertCols, insertVals);
+                }
 
-                        String fetchSql = null;
-                        if (cols.stream().anyMatch(c -> c.equalsIgnoreCase("id"))) {
-                            fetchSql = "SELECT * FROM orders WHERE id = ?";
-                        }
+                String keyCol = schema.primaryKeyOr("id");
+                String fetchSql = keyCol != null ? "SELECT * FROM orders WHERE " + keyCol + " = ?" : null;
 
-                        if (fetchSql != null) {
-                            try (PreparedStatement fetch = conn.prepareStatement(fetchSql)) {
-                                fetch.setObject(1, pkVal);
-                                try (ResultSet rs = fetch.executeQuery()) {
-                                    ResultSetMetaData md = rs.getMetaData();
-                                    int cc = md.getColumnCount();
-                                    if (rs.next()) {
-                                        for (int i = 1; i <= cc; i++) {
-                                            created.put(md.getColumnName(i), rs.getObject(i));
-                                        }
-                                    }
+                if (returnRow && fetchSql != null) {
+                    try (PreparedStatement fetch = conn.prepareStatement(fetchSql)) {
+                        fetch.setObject(1, pkVal);
+                        try (ResultSet rs = fetch.executeQuery()) {
+                            ResultSetMetaData md = rs.getMetaData();
+                            int cc = md.getColumnCount();
+                            if (rs.next()) {
+                                for (int i = 1; i <= cc; i++) {
+                                    created.put(md.getColumnName(i), rs.getObject(i));
                                 }
                             }
                         }
                     }
+                } else {
+                    // ประกอบ row จากค่าที่ insert + key + default ใน schema ไม่ต้อง SELECT ซ้ำ
+                    created.putAll(schema.rowFromInsert(insertCols, insertVals, pkVal));
                 }
             }
+            created.put("pricing", quote);
 
             return ResponseEntity.ok(created);
         } catch (Exception e) {
@@ -149,19 +339,215 @@ public class OrderController {
         }
     }
 
-    // GET /api/orders/{id}
-    @GetMapping("/{id}")
-    public ResponseEntity<?> getOrderById(@PathVariable Object id) {
+    // POST /api/orders/batch  body: [{...}, {...}]  แต่ละ order ต้องมี items เหมือน POST /api/orders
+    // insert ทั้งชุดด้วย JDBC batch ใน transaction เดียว คืน id ตามลำดับที่ส่งมา
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrders(@RequestBody List<Map<String, Object>> orderRequests) {
+        if (orderRequests.isEmpty()) {
+            return ResponseEntity.badRequest().body("No orders in batch");
+        }
+        if (orderRequests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("Batch too large, max " + maxBatchSize + " orders");
+        }
+        // ทุก order คิดราคาก่อนเปิด connection; order เดียวผิดก็ปฏิเสธทั้งชุด
+        List<PriceQuote> quotes = new ArrayList<>(orderRequests.size());
+        for (int i = 0; i < orderRequests.size(); i++) {
+            try {
+                quotes.add(pricingEngine.quote(orderRequests.get(i)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Order " + i + ": " + e.getMessage());
+            }
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            List<String> insertCols = OrderInserts.columns(schema);
+            if (insertCols.isEmpty()) {
+                return ResponseEntity.badRequest().body("No supported columns to insert");
+            }
+            List<String> itemCols = OrderInserts.itemColumns(schemaRegistry.get(conn, "order_items"));
+            if (itemCols.isEmpty()) {
+                return ResponseEntity.internalServerError().body("Table 'order_items' needs order_id and menu_id columns");
+            }
+
+            List<List<Object>> rows = new ArrayList<>(orderRequests.size());
+            for (int i = 0; i < orderRequests.size(); i++) {
+                Map<String, Object> values = new LinkedHashMap<>(orderRequests.get(i));
+                values.put("amount", quotes.get(i).totalBaht());
+                rows.add(OrderInserts.values(insertCols, values));
+            }
+
+            List<Long> ids = new ArrayList<>(rows.size());
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(OrderInserts.sql(insertCols, 1), Statement.RETURN_GENERATED_KEYS)) {
+                for (List<Object> vals : rows) {
+                    for (int i = 0; i < vals.size(); i++) {
+                        pstmt.setObject(i + 1, vals.get(i));
+                    }
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                // rewriteBatchedStatements ส่งเป็น multi-row INSERT; key ที่ได้กลับมาเรียงตามลำดับ row
+                try (ResultSet gk = pstmt.getGeneratedKeys()) {
+                    while (gk.next()) {
+                        ids.add(gk.getLong(1));
+                    }
+                }
+                if (ids.size() != rows.size()) {
+                    throw new SQLException("Expected " + rows.size() + " generated keys, got " + ids.size());
+                }
+                try (PreparedStatement items = conn.prepareStatement(OrderInserts.itemSql(itemCols))) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        OrderInserts.addItems(items, itemCols, ids.get(i), quotes.get(i));
+                    }
+                    items.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                // rollback ก่อนคืน autoCommit เสมอ ไม่อย่างนั้น setAutoCommit(true) จะ commit แถวที่ insert ไปแล้ว
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+            for (int i = 0; i < ids.size(); i++) {
+                orderBoard.onInserted(ids.get(i), insertCols, rows.get(i));
+            }
+            return ResponseEntity.ok(Map.of("count", ids.size(), "ids", ids));
+        } catch (Exception e) {
+            logger.error("Error creating order batch", e);
+            return ResponseEntity.internalServerError().body("Error creating order batch: " + e.getMessage());
+        }
+    }
+
+    // POST /api/orders/intake — รับ order เข้าคิวแล้วตอบทันทีด้วย provisional id
+    // writer เบื้องหลังจะ insert เป็นกลุ่ม (multi-row INSERT) ใช้ได้เมื่อ thaifood.orders.intake.enabled=true
+    @PostMapping("/intake")
+    public ResponseEntity<?> submitOrder(@RequestBody Map<String, Object> orderRequest) {
+        try {
+            OrderIntake.Receipt receipt = orderIntake.submit(orderRequest);
+            if (receipt == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Order intake queue is full");
+            }
+            return ResponseEntity.accepted().body(receipt);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error queuing order", e);
+            return ResponseEntity.internalServerError().body("Error queuing order: " + e.getMessage());
+        }
+    }
+
+    // GET /api/orders/intake/{provisionalId} — สถานะของ order ที่ตอบรับแล้วแต่อาจยังไม่ถูกเขียนลง database
+    @GetMapping("/intake/{provisionalId}")
+    public ResponseEntity<?> getIntakeStatus(@PathVariable String provisionalId) {
+        OrderIntake.Receipt receipt = orderIntake.lookup(provisionalId);
+        return receipt != null ? ResponseEntity.ok(receipt) : ResponseEntity.notFound().build();
+    }
+
+    // GET /api/orders/intake
+    @GetMapping("/intake")
+    public ResponseEntity<?> getIntakeStats() {
+        return ResponseEntity.ok(orderIntake.stats());
+    }
+
+    // GET /api/orders/summaries?limit=&cursor= — order พร้อมรายการอาหาร (OrderDTO) ทีละหน้า
+    // แบ่งหน้าแบบ keyset เหมือน GET /api/orders ใช้ 2 query ต่อหน้าไม่ว่าหน้านั้นจะมีกี่ order
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getOrderSummaries(@RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String cursor) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        KeysetCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid paging parameter: " + e.getMessage());
+        }
+        try {
+            OrderService.SummaryPage page = orderService.getOrderSummaries(after, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.next() != null) {
+                response.header("X-Next-Cursor", page.next().encode());
+            }
+            return response.body(page.orders());
+        } catch (Exception e) {
+            logger.error("Error fetching order summaries", e);
+            return ResponseEntity.internalServerError().body("Error fetching order summaries: " + e.getMessage());
+        }
+    }
+
+    // GET /api/orders/board — คิวครัวแยกตามสถานะ อ่านจากหน่วยความจำ ไม่แตะฐานข้อมูล
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard() {
+        Map<String, Object> board = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            board.put(status.name(), orderBoard.get(status));
+        }
+        board.put("stats", orderBoard.stats());
+        return ResponseEntity.ok(board);
+    }
+
+    // GET /api/orders/board/{status}
+    @GetMapping("/board/{status}")
+    public ResponseEntity<?> getBoardByStatus(@PathVariable String status) {
+        OrderStatus parsed = OrderStatus.parse(status);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body("Unknown status: " + status);
+        }
+        return ResponseEntity.ok(orderBoard.get(parsed));
+    }
+
+    // PATCH /api/orders/{id}/status  body: {"status": "PROCESSING"}
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        OrderStatus status = OrderStatus.parse(body.get("status") == null ? null : body.get("status").toString());
+        if (status == null) {
+            return ResponseEntity.badRequest().body("Unknown status: " + body.get("status"));
+        }
         try (Connection conn = dataSource.getConnection()) {
-            String[] candidates = new String[]{"id"};
-            String foundCol = null;
-            List<String> cols = discoverColumns(conn, "orders");
-            for (String c : candidates) {
-                if (cols.stream().anyMatch(x -> x.equalsIgnoreCase(c))) {
-                    foundCol = cols.stream().filter(x -> x.equalsIgnoreCase(c)).findFirst().get();
-                    break;
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            String keyCol = schema.primaryKeyOr("id");
+            if (keyCol == null || !schema.hasColumn("status")) {
+                return ResponseEntity.internalServerError().body("orders has no status or PK column");
+            }
+            // The board takes the status read back after the commit, which is the latest one
+            // even if another writer got in between
+            OrderStatus stored = orderBoard.changeStatus(id, () -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE orders SET status = ? WHERE " + keyCol + " = ?")) {
+                    pstmt.setString(1, status.name());
+                    pstmt.setLong(2, id);
+                    if (pstmt.executeUpdate() == 0) {
+                        return null;
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT status FROM orders WHERE " + keyCol + " = ?")) {
+                    pstmt.setLong(1, id);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? OrderStatus.parse(rs.getString(1)) : null;
+                    }
                 }
+            });
+            if (stored == null) {
+                return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.ok(Map.of("id", id, "status", stored.name()));
+        } catch (Exception e) {
+            logger.error("Error updating order status", e);
+            return ResponseEntity.internalServerError().body("Error updating order status: " + e.getMessage());
+        }
+    }
+
+    // GET /api/orders/{id}
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getOrderById(@PathVariable Long id) {
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            String foundCol = schema.primaryKeyOr("id");
             if (foundCol == null) {
                 return ResponseEntity.internalServerError().body("No PK column found for orders");
             }
@@ -171,12 +557,7 @@ public class OrderController {
                 pstmt.setObject(1, id);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        Map<String, Object> row = new LinkedHashMap<>();
-                        ResultSetMetaData md = rs.getMetaData();
-                        for (int i = 1; i <= md.getColumnCount(); i++) {
-                            row.put(md.getColumnName(i), rs.getObject(i));
-                        }
-                        return ResponseEntity.ok(row);
+                        return ResponseEntity.ok(OrderRow.MAPPER.mapRow(sql, rs));
                     }
                 }
             }
@@ -186,4 +567,16 @@ public class OrderController {
             return ResponseEntity.internalServerError().body("Error fetching order: " + e.getMessage());
         }
     }
+
+    // รับได้ทั้ง 2024-05-01 และ 2024-05-01T12:00:00; วันที่ล้วนใน "to" นับรวมทั้งวัน
+    private LocalDateTime parseDateParam(String value, boolean endExclusive) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.contains("T")) {
+            return LocalDateTime.parse(value);
+        }
+        LocalDate date = LocalDate.parse(value);
+        return endExclusive ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+    }
 }
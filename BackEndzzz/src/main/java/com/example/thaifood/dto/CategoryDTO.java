@@ -28,6 +28,16 @@ public class CategoryDTO {
         }
     }
 
+    // Constructor for JPQL projections: reads the columns straight into the DTO, no managed entity
+    public CategoryDTO(Long id, String name, String description, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        if (createdAt != null) {
+            this.createdAt = createdAt.format(formatter);
+        }
+    }
+
     // Convert to entity
     public Category toEntity() {
         Category category = new Category();
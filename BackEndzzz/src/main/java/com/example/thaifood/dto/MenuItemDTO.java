@@ -3,6 +3,7 @@ package com.example.thaifood.dto;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import com.example.thaifood.jdbc.row.MenuItemRow;
 import com.example.thaifood.model.Category;
 import com.example.thaifood.model.MenuItem;
 
@@ -45,6 +46,39 @@ public class MenuItemDTO {
         }
     }
 
+    // Constructor for JPQL projections: reads the columns straight into the DTO, no managed entity
+    public MenuItemDTO(Long idItem, String itemName, String description, Double price, String imageUrl,
+                       Boolean isAvailable, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.idItem = idItem;
+        this.itemName = itemName;
+        this.description = description;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.isAvailable = isAvailable;
+        if (createdAt != null) {
+            this.createdAt = createdAt.format(formatter);
+        }
+        if (updatedAt != null) {
+            this.updatedAt = updatedAt.format(formatter);
+        }
+    }
+
+    // Constructor from a row of the menu catalog snapshot
+    public MenuItemDTO(MenuItemRow row) {
+        this.idItem = row.idItem();
+        this.itemName = row.itemName();
+        this.description = row.description();
+        this.price = row.isNull(MenuItemRow.PRICE) ? null : row.price().doubleValue();
+        this.imageUrl = row.imageUrl();
+        this.isAvailable = row.isNull(MenuItemRow.IS_AVAILABLE) ? null : row.isAvailable();
+        if (row.createdAt() != null) {
+            this.createdAt = row.createdAt().format(formatter);
+        }
+        if (row.updatedAt() != null) {
+            this.updatedAt = row.updatedAt().format(formatter);
+        }
+    }
+
     // Convert to entity
     public MenuItem toEntity() {
         MenuItem menuItem = new MenuItem();
@@ -10,6 +10,20 @@ public class OrderDTO {
     private Double totalAmount;
     private String status;
     private List<Long> menuIds;
+    private List<OrderItemDTO> items;
+
+    // Default constructor
+    public OrderDTO() {
+    }
+
+    // Constructor for JPQL projections; items are filled in separately
+    public OrderDTO(Long id, String customerName, LocalDateTime orderDate, Double totalAmount, String status) {
+        this.id = id;
+        this.customerName = customerName;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+    }
 
     // Getters and Setters
     public Long getId() {
@@ -59,4 +73,12 @@ public class OrderDTO {
     public void setMenuIds(List<Long> menuIds) {
         this.menuIds = menuIds;
     }
+
+    public List<OrderItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemDTO> items) {
+        this.items = items;
+    }
 }
\ No newline at end of file
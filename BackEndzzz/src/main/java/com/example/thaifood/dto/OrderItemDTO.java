@@ -0,0 +1,54 @@
+package com.example.thaifood.dto;
+
+// One menu item of an order, as returned with OrderDTO
+public class OrderItemDTO {
+    private Long orderId;
+    private Long menuId;
+    private String itemName;
+    private Double price;
+
+    // Default constructor
+    public OrderItemDTO() {
+    }
+
+    // Constructor for JPQL projections
+    public OrderItemDTO(Long orderId, Long menuId, String itemName, Double price) {
+        this.orderId = orderId;
+        this.menuId = menuId;
+        this.itemName = itemName;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getMenuId() {
+        return menuId;
+    }
+
+    public void setMenuId(Long menuId) {
+        this.menuId = menuId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+}
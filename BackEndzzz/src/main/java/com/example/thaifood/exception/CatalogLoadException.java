@@ -0,0 +1,9 @@
+package com.example.thaifood.exception;
+
+public class CatalogLoadException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CatalogLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.thaifood.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed share of database connections for one class of work. Permits are handed out in arrival
+ * order; a caller waits at most {@code queueTimeoutMillis}, and is turned away immediately when
+ * {@code maxWaiters} callers are already queued.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long queueTimeoutMillis;
+    private final int maxWaiters;
+    private final Semaphore semaphore;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public Bulkhead(String name, int permits, long queueTimeoutMillis, int maxWaiters) {
+        this.name = name;
+        this.permits = permits;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.maxWaiters = maxWaiters;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailable() {
+        return semaphore.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    // Turned away because the queue was full, or after waiting queueTimeoutMillis
+    public long getRejected() {
+        return rejected.sum() + timedOut.sum();
+    }
+
+    public void acquire() throws BulkheadFullException {
+        try {
+            // tryAcquire(0, unit) honours fairness, unlike tryAcquire()
+            if (semaphore.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                acquired.increment();
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiters) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                throw new BulkheadFullException(name, "Bulkhead '" + name + "' is full (" + maxWaiters + " waiting)");
+            }
+            long start = System.nanoTime();
+            boolean granted;
+            try {
+                granted = semaphore.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            } finally {
+                waiting.decrementAndGet();
+                long waited = System.nanoTime() - start;
+                waits.increment();
+                waitNanos.add(waited);
+                maxWaitNanos.accumulate(waited);
+            }
+            if (!granted) {
+                timedOut.increment();
+                throw new BulkheadFullException(name,
+                        "Timed out after " + queueTimeoutMillis + "ms waiting for bulkhead '" + name + "'");
+            }
+            acquired.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name, "Interrupted waiting for bulkhead '" + name + "'");
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long waited = waits.sum();
+        stats.put("permits", permits);
+        stats.put("available", semaphore.availablePermits());
+        stats.put("waiting", waiting.get());
+        stats.put("maxWaiters", maxWaiters);
+        stats.put("queueTimeoutMillis", queueTimeoutMillis);
+        stats.put("acquired", acquired.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("queued", waited);
+        stats.put("avgWaitMillis", waited == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / waited);
+        stats.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.thaifood.jdbc;
+
+import java.sql.SQLTransientConnectionException;
+
+// Thrown from getConnection() when a bulkhead turns the caller away; answered with 503 by BulkheadFilter
+public class BulkheadFullException extends SQLTransientConnectionException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.thaifood.jdbc;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The configured bulkheads and the one the current thread draws connections from. Request threads
+ * are assigned one by BulkheadFilter; work without an assignment (scheduled refreshes, warm-ups)
+ * uses the default bulkhead. A rejection is recorded on the {@link Scope} of the work that hit it, so
+ * it is read from the same object on whichever thread the request finishes and nothing is left
+ * behind on pooled threads.
+ */
+public class Bulkheads {
+
+    public static final String ORDERS = "orders";
+    public static final String READS = "reads";
+    public static final String BACKOFFICE = "backoffice";
+
+    private final Map<String, Bulkhead> byName = new LinkedHashMap<>();
+    private final String defaultName;
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    // One request's (or task's) bulkhead assignment and whether it was turned away
+    public static final class Scope {
+        private final String name;
+        private volatile BulkheadFullException rejection;
+
+        public Scope(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isRejected() {
+            return rejection != null;
+        }
+
+        public BulkheadFullException getRejection() {
+            return rejection;
+        }
+    }
+
+    public Bulkheads(Collection<Bulkhead> bulkheads, String defaultName) {
+        for (Bulkhead bulkhead : bulkheads) {
+            byName.put(bulkhead.getName(), bulkhead);
+        }
+        if (!byName.containsKey(defaultName)) {
+            throw new IllegalArgumentException("Unknown default bulkhead " + defaultName);
+        }
+        this.defaultName = defaultName;
+    }
+
+    public Bulkhead resolve() {
+        Scope scope = current.get();
+        Bulkhead bulkhead = scope != null ? byName.get(scope.name) : null;
+        return bulkhead != null ? bulkhead : byName.get(defaultName);
+    }
+
+    // Scope assigned to the current thread, or null
+    public Scope current() {
+        return current.get();
+    }
+
+    public <T> T call(String name, Callable<T> work) throws Exception {
+        return call(new Scope(name), work);
+    }
+
+    public <T> T call(Scope scope, Callable<T> work) throws Exception {
+        Scope previous = current.get();
+        current.set(scope);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    // Remembers that the current request was turned away, so the filter can answer 503
+    void rejected(BulkheadFullException e) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.rejection = e;
+        }
+    }
+
+    public Collection<Bulkhead> all() {
+        return Collections.unmodifiableCollection(byName.values());
+    }
+
+    public int totalPermits() {
+        int total = 0;
+        for (Bulkhead bulkhead : byName.values()) {
+            total += bulkhead.getPermits();
+        }
+        return total;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Bulkhead bulkhead : byName.values()) {
+            stats.put(bulkhead.getName(), bulkhead.stats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.thaifood.jdbc;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Streams query results to the client as JSON, one row at a time, instead of collecting
+ * them into a list first. The statement is forward-only and read-only with a bounded fetch
+ * size, so heap use stays flat regardless of how many rows the query returns.
+ *
+ * <p>With MySQL a positive fetch size only streams when the URL sets {@code useCursorFetch=true}.
+ */
+@Component
+public class JsonRowStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonRowStreamer.class);
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Bulkheads bulkheads;
+    private final ObjectProvider<ReplicaRouter> replicaRouter;
+    private final int fetchSize;
+    private final int flushRows;
+
+    public JsonRowStreamer(DataSource dataSource,
+                           ObjectMapper objectMapper,
+                           Bulkheads bulkheads,
+                           ObjectProvider<ReplicaRouter> replicaRouter,
+                           @Value("${thaifood.stream.fetch-size:500}") int fetchSize,
+                           @Value("${thaifood.stream.flush-rows:50}") int flushRows) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.bulkheads = bulkheads;
+        this.replicaRouter = replicaRouter;
+        this.fetchSize = fetchSize;
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    // Streams the rows as a bare JSON array: [{...}, {...}]
+    public ResponseEntity<StreamingResponseBody> streamArray(String sql, List<Object> params) {
+        return response(out -> query(sql, params, out, (gen, rs, labels) -> {
+            gen.writeStartArray();
+            writeRows(gen, rs, labels);
+            gen.writeEndArray();
+        }));
+    }
+
+    // Streams the rows inside the /api/test/raw-query envelope: {"success", "columnNames", "data", "rowCount"}
+    public ResponseEntity<StreamingResponseBody> streamEnvelope(String sql) {
+        return response(out -> query(sql, List.of(), out, (gen, rs, labels) -> {
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            gen.writeArrayFieldStart("columnNames");
+            for (String label : labels) {
+                gen.writeString(label);
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("data");
+            long count = writeRows(gen, rs, labels);
+            gen.writeEndArray();
+            gen.writeNumberField("rowCount", count);
+            gen.writeEndObject();
+        }));
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(JsonGenerator gen, ResultSet rs, String[] labels) throws IOException, SQLException;
+    }
+
+    // The body runs later on an async thread; it keeps the bulkhead and read routing of the request that created it
+    private ResponseEntity<StreamingResponseBody> response(StreamingResponseBody body) {
+        Bulkheads.Scope bulkhead = bulkheads.current();
+        ReplicaRouter router = replicaRouter.getIfAvailable();
+        ReplicaRouter.Context routing = router != null ? router.current() : null;
+        StreamingResponseBody inContext = out -> {
+            try {
+                Callable<Void> write = () -> {
+                    body.writeTo(out);
+                    return null;
+                };
+                Callable<Void> routed = routing == null ? write : () -> router.call(routing, write);
+                if (bulkhead == null) {
+                    routed.call();
+                } else {
+                    bulkheads.call(bulkhead, routed);
+                }
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(inContext);
+    }
+
+    private void query(String sql, List<Object> params, OutputStream out, BodyWriter writer) throws IOException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery();
+                 JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                // The container owns the response stream
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                writer.write(gen, rs, columnLabels(rs.getMetaData()));
+            }
+        } catch (SQLException e) {
+            // Headers are already committed once rows are flushed, so all we can do is abort the response
+            logger.error("Streaming query failed: {}", sql, e);
+            throw new IOException("Streaming query failed: " + e.getMessage(), e);
+        }
+    }
+
+    private long writeRows(JsonGenerator gen, ResultSet rs, String[] labels) throws IOException, SQLException {
+        long count = 0;
+        while (rs.next()) {
+            gen.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                gen.writeFieldName(labels[i]);
+                gen.writeObject(rs.getObject(i + 1));
+            }
+            gen.writeEndObject();
+            if (++count % flushRows == 0) {
+                gen.flush();
+            }
+        }
+        return count;
+    }
+
+    private static String[] columnLabels(ResultSetMetaData md) throws SQLException {
+        String[] labels = new String[md.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.thaifood.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a {@code (timestamp, id)} ordered listing. Clients get it back as a
+ * URL-safe token and pass it unchanged to fetch the next page; the format may change
+ * between versions, so the token carries its own version prefix. A null timestamp marks a
+ * position among the rows without one, which the listing orders after all dated rows.
+ */
+public final class KeysetCursor {
+
+    private static final String VERSION = "v1";
+
+    private final LocalDateTime sortKey;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public LocalDateTime getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + (sortKey == null ? "" : sortKey) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime sortKey = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new KeysetCursor(sortKey, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.thaifood.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many threads can hold a database connection at once. Each connection is taken from the
+ * calling thread's {@link Bulkhead}, whose fair semaphores together are sized to the connection pool,
+ * so one class of work (e.g. a slow diagnostic scan) cannot take the connections another needs.
+ * With virtual threads there is no thread-pool bound in front of the database any more, so waiting
+ * requests queue here in arrival order instead of piling up inside the driver.
+ * <p>
+ * The permit belongs to the connections, not to the thread: every connection holds a reference to
+ * its {@link Lease} and gives it back exactly once, in {@code close()}, on whatever thread closes it
+ * (a streamed response, the intake writer). A connection opened by the same request (the same
+ * {@link Bulkheads.Scope}) while one of its connections is still open shares that lease instead of
+ * queueing for a second permit, which would deadlock a request against itself (e.g. a raw-JDBC call
+ * while open-in-view holds the JPA connection). Another request on the same pooled thread always
+ * takes its own permit, even if an earlier request's connection is still open elsewhere. The permit
+ * is released when the last connection on the lease closes, and a released lease is never reused.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private static final class Lease {
+        final Bulkhead bulkhead;
+        // Request the permit was taken for; null for unassigned work
+        final Bulkheads.Scope scope;
+        // Open connections on this lease; 0 means the permit has been returned for good
+        final AtomicInteger open = new AtomicInteger(1);
+
+        Lease(Bulkhead bulkhead, Bulkheads.Scope scope) {
+            this.bulkhead = bulkhead;
+            this.scope = scope;
+        }
+
+        // Joins the lease unless its permit is already gone
+        boolean retain() {
+            for (int n = open.get(); n > 0; n = open.get()) {
+                if (open.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // True when this call returned the permit
+        boolean release() {
+            if (open.decrementAndGet() == 0) {
+                bulkhead.release();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final Bulkheads bulkheads;
+    // Lease of the connections this thread opened last; only reused by the same scope while open
+    private final ThreadLocal<Lease> current = new ThreadLocal<>();
+
+    public LimitedDataSource(DataSource target, Bulkheads bulkheads) {
+        super(target);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Lease lease = lease();
+        try {
+            return track(super.getConnection(), lease);
+        } catch (SQLException | RuntimeException e) {
+            release(lease);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Lease lease = lease();
+        try {
+            return track(super.getConnection(username, password), lease);
+        } catch (SQLException | RuntimeException e) {
+            release(lease);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return bulkheads.stats();
+    }
+
+    private Lease lease() throws SQLException {
+        Bulkheads.Scope scope = bulkheads.current();
+        Lease lease = current.get();
+        if (lease != null && lease.scope == scope && lease.retain()) {
+            return lease;
+        }
+        Bulkhead bulkhead = bulkheads.resolve();
+        try {
+            bulkhead.acquire();
+        } catch (BulkheadFullException e) {
+            bulkheads.rejected(e);
+            throw e;
+        }
+        lease = new Lease(bulkhead, scope);
+        current.set(lease);
+        return lease;
+    }
+
+    private void release(Lease lease) {
+        // Forget the lease on the thread that opened it; other threads' slots go stale and are skipped
+        if (lease.release() && current.get() == lease) {
+            current.remove();
+        }
+    }
+
+    private Connection track(Connection target, Lease lease) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        if (!closed.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            release(lease);
+                        }
+                    }
+                    if (method.getName().equals("isClosed") && closed.get()) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.thaifood.jdbc;
+
+import com.example.thaifood.jdbc.StatementMetrics.Kind;
+import com.example.thaifood.jdbc.StatementMetrics.Shape;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times every statement run through this data source (Hibernate, JdbcTemplate and the raw-JDBC
+ * controllers alike) and counts the rows it returns or changes, per statement shape
+ * (see {@link StatementMetrics}). Queries are timed until the driver hands back the result set; rows
+ * are counted as the caller reads them (see CountingResultSet) and recorded when the result set or
+ * statement is closed. When a {@link StatementDiagnostics} is given, it also sees every execution
+ * along with the types of the bind parameters set on the statement.
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+
+    // Proxy.newProxyInstance looks the proxy class up on every call; statements are created per
+    // query, so their proxies are built through the cached constructors instead
+    private static final Constructor<?> CONNECTION = proxyConstructor(Connection.class);
+    private static final Constructor<?> STATEMENT = proxyConstructor(Statement.class);
+    private static final Constructor<?> PREPARED_STATEMENT = proxyConstructor(PreparedStatement.class);
+    private static final Constructor<?> CALLABLE_STATEMENT = proxyConstructor(CallableStatement.class);
+
+    // Bind parameters remembered per statement for the slow-query log, at most this many
+    private static final int MAX_PARAMETERS = 50;
+
+    private final StatementMetrics metrics;
+    private final StatementDiagnostics diagnostics;
+
+    public MeteredDataSource(DataSource target, StatementMetrics metrics) {
+        this(target, metrics, null);
+    }
+
+    public MeteredDataSource(DataSource target, StatementMetrics metrics, StatementDiagnostics diagnostics) {
+        super(target);
+        this.metrics = metrics;
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return meter(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return meter(super.getConnection(username, password));
+    }
+
+    private Connection meter(Connection target) {
+        return (Connection) proxy(CONNECTION, new ConnectionHandler(target));
+    }
+
+    private static Constructor<?> proxyConstructor(Class<?> type) {
+        try {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> null)
+                    .getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No proxy constructor for " + type.getName(), e);
+        }
+    }
+
+    private static Object proxy(Constructor<?> constructor, InvocationHandler handler) {
+        try {
+            return constructor.newInstance(handler);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create JDBC proxy", e);
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PREPARED_STATEMENT, result, (Connection) proxy, (String) args[0]);
+                case "prepareCall" -> statement(CALLABLE_STATEMENT, result, (Connection) proxy, (String) args[0]);
+                case "createStatement" -> statement(STATEMENT, result, (Connection) proxy, null);
+                default -> result;
+            };
+        }
+
+        private Object statement(Constructor<?> type, Object target, Connection connection, String sql) {
+            return proxy(type, new StatementHandler((Statement) target, connection, sql));
+        }
+    }
+
+    // Used by one thread at a time, like the statement itself
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        // Prepared SQL; null for a plain Statement, which passes its SQL to each execute call
+        private final String sql;
+        private String batchSql;
+        private Shape executed;
+        private RowCounter open;
+        // Redacted bind parameters (types only), by position; only kept with diagnostics on
+        private List<String> parameters;
+
+        StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "executeQuery" -> {
+                    Shape shape = metrics.shape(sql(args), Kind.QUERY);
+                    return rows(shape, (ResultSet) timed(shape, method, args), proxy);
+                }
+                case "executeUpdate", "executeLargeUpdate" -> {
+                    Shape shape = metrics.shape(sql(args), Kind.UPDATE);
+                    Object count = timed(shape, method, args);
+                    shape.rows(((Number) count).longValue());
+                    return count;
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    String batch = sql != null ? sql : batchSql;
+                    batchSql = null;
+                    Shape shape = metrics.shape(batch != null ? batch : "", Kind.BATCH);
+                    Object counts = timed(shape, method, args);
+                    shape.rows(changed(counts));
+                    return counts;
+                }
+                case "execute" -> {
+                    Shape shape = metrics.shape(sql(args), Kind.EXECUTE);
+                    Object hasResultSet = timed(shape, method, args);
+                    executed = shape;
+                    return hasResultSet;
+                }
+                case "getResultSet" -> {
+                    ResultSet rs = (ResultSet) call(target, method, args);
+                    return rs == null || executed == null ? rs : rows(executed, rs, proxy);
+                }
+                case "addBatch" -> {
+                    if (args != null && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                    return call(target, method, args);
+                }
+                case "clearBatch" -> {
+                    batchSql = null;
+                    return call(target, method, args);
+                }
+                case "clearParameters" -> {
+                    if (parameters != null) {
+                        parameters.clear();
+                    }
+                    return call(target, method, args);
+                }
+                case "close" -> {
+                    finishRows();
+                    return call(target, method, args);
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                default -> {
+                    if (diagnostics != null && args != null && args.length >= 2 && args[0] instanceof Integer index
+                            && method.getName().startsWith("set")) {
+                        bind(index, method.getName(), args[1]);
+                    }
+                    return call(target, method, args);
+                }
+            }
+        }
+
+        private void bind(int index, String setter, Object value) {
+            if (index < 1 || index > MAX_PARAMETERS) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new ArrayList<>();
+            }
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, StatementDiagnostics.redact(setter, value));
+        }
+
+        private String sql(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : sql != null ? sql : "";
+        }
+
+        private Object timed(Shape shape, Method method, Object[] args) throws Throwable {
+            finishRows();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = call(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                shape.executed(nanos, failed);
+                if (diagnostics != null) {
+                    diagnostics.executed(shape, nanos, failed, parameters);
+                }
+            }
+        }
+
+        private ResultSet rows(Shape shape, ResultSet target, Object statement) {
+            finishRows();
+            open = new RowCounter(shape);
+            return new CountingResultSet(target, open, (Statement) statement);
+        }
+
+        private void finishRows() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+
+        private long changed(Object counts) {
+            long total = 0;
+            if (counts instanceof int[] ints) {
+                for (int c : ints) {
+                    total += Math.max(c, 0);
+                }
+            } else if (counts instanceof long[] longs) {
+                for (long c : longs) {
+                    total += Math.max(c, 0);
+                }
+            }
+            return total;
+        }
+    }
+
+    static final class RowCounter {
+        private final Shape shape;
+        long rows;
+        private boolean finished;
+
+        RowCounter(Shape shape) {
+            this.shape = shape;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                shape.rows(rows);
+            }
+        }
+    }
+}
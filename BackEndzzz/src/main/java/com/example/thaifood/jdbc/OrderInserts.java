@@ -0,0 +1,111 @@
+package com.example.thaifood.jdbc;
+
+import com.example.thaifood.pricing.PriceQuote;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Column and value resolution for INSERTs into orders, shared by the single, batch and
+ * write-behind create paths so they all write the same columns with the same defaults.
+ * Every order is priced on the server and also writes one order_items row per line.
+ */
+public final class OrderInserts {
+
+    private static final List<String> WRITABLE = List.of("customer_id", "order_date", "status", "amount");
+    private static final List<String> ITEM_WRITABLE = List.of("order_id", "menu_id", "quantity", "unit_price");
+
+    private OrderInserts() {
+    }
+
+    public static List<String> columns(TableSchema schema) {
+        List<String> cols = new ArrayList<>();
+        for (String col : WRITABLE) {
+            if (schema.hasColumn(col)) {
+                cols.add(col);
+            }
+        }
+        return cols;
+    }
+
+    public static List<Object> values(List<String> cols, Map<String, Object> orderRequest) {
+        List<Object> vals = new ArrayList<>(cols.size());
+        for (String col : cols) {
+            switch (col) {
+                case "order_date" -> {
+                    Object od = orderRequest.getOrDefault("order_date", Timestamp.valueOf(LocalDateTime.now()));
+                    vals.add(od instanceof String ? Timestamp.valueOf((String) od) : od);
+                }
+                case "status" -> vals.add(orderRequest.getOrDefault("status", "pending"));
+                default -> vals.add(orderRequest.get(col));
+            }
+        }
+        return vals;
+    }
+
+    // order_items columns present in this schema; order_id and menu_id are always needed
+    public static List<String> itemColumns(TableSchema schema) {
+        List<String> cols = new ArrayList<>();
+        for (String col : ITEM_WRITABLE) {
+            if (schema.hasColumn(col)) {
+                cols.add(col);
+            }
+        }
+        return cols.contains("order_id") && cols.contains("menu_id") ? cols : List.of();
+    }
+
+    // Line i of the quote, with the unit price it was charged at
+    public static List<Object> itemValues(List<String> cols, long orderId, PriceQuote quote, int line) {
+        List<Object> vals = new ArrayList<>(cols.size());
+        for (String col : cols) {
+            switch (col) {
+                case "order_id" -> vals.add(orderId);
+                case "menu_id" -> vals.add(quote.menuIds()[line]);
+                case "quantity" -> vals.add(quote.quantities()[line]);
+                default -> vals.add(PriceQuote.baht(quote.unitPrices()[line]));
+            }
+        }
+        return vals;
+    }
+
+    // Queues one order_items row per line of the quote on an itemSql statement
+    public static void addItems(PreparedStatement items, List<String> cols, long orderId, PriceQuote quote)
+            throws SQLException {
+        for (int line = 0; line < quote.lines(); line++) {
+            List<Object> vals = itemValues(cols, orderId, quote, line);
+            for (int i = 0; i < vals.size(); i++) {
+                items.setObject(i + 1, vals.get(i));
+            }
+            items.addBatch();
+        }
+    }
+
+    public static String itemSql(List<String> cols) {
+        return insert("order_items", cols, 1);
+    }
+
+    // INSERT with one placeholder group per row; rows > 1 gives a multi-row INSERT
+    public static String sql(List<String> cols, int rows) {
+        return insert("orders", cols, rows);
+    }
+
+    private static String insert(String table, List<String> cols, int rows) {
+        StringJoiner sjCols = new StringJoiner(", ");
+        StringJoiner sjParams = new StringJoiner(", ", "(", ")");
+        for (String col : cols) {
+            sjCols.add(col);
+            sjParams.add("?");
+        }
+        StringJoiner sjRows = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            sjRows.add(sjParams.toString());
+        }
+        return "INSERT INTO " + table + " (" + sjCols + ") VALUES " + sjRows;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.thaifood.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only work to a set of replicas and everything else to the primary. Work counts as
+ * read-only inside a {@code @Transactional(readOnly = true)} method, or outside any transaction
+ * when the current request was marked read-only (GET handlers, see ReadRoutingFilter).
+ * <p>
+ * Replicas are picked by smooth weighted round-robin among the healthy ones; a replica that fails
+ * to hand out a connection is taken out until the next successful health check, and the read goes
+ * to the primary instead. For a short window after a client writes, its reads also go to the
+ * primary so it always sees its own writes despite replication lag.
+ */
+public class ReplicaRouter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final String PRIMARY = "primary";
+
+    public record Context(boolean readOnly, String client) {
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final int weight;
+        int currentWeight;
+        volatile boolean healthy = true;
+        final LongAdder routed = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        Replica(String name, DataSource dataSource, int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = weight;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long stickyWindowMillis;
+    private final ThreadLocal<Context> context = new ThreadLocal<>();
+    private final ConcurrentMap<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+    private final RoutingDataSource routingDataSource;
+
+    private final LongAdder primaryWrites = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+
+    public ReplicaRouter(DataSource primary, Map<String, DataSource> replicaPools, Map<String, Integer> weights,
+                         long stickyWindowMillis) {
+        this.primary = primary;
+        this.stickyWindowMillis = stickyWindowMillis;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPools.forEach((name, dataSource) -> {
+            replicas.add(new Replica(name, dataSource, Math.max(1, weights.getOrDefault(name, 1))));
+            targets.put(name, dataSource);
+        });
+        this.routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    public DataSource getDataSource() {
+        return routingDataSource;
+    }
+
+    public Context current() {
+        return context.get();
+    }
+
+    public <T> T call(Context ctx, Callable<T> work) throws Exception {
+        Context previous = context.get();
+        context.set(ctx);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                context.remove();
+            } else {
+                context.set(previous);
+            }
+        }
+    }
+
+    public void recordWrite(String client) {
+        if (client != null) {
+            lastWriteByClient.put(client, System.currentTimeMillis());
+        }
+    }
+
+    // Name of the target for the next connection on this thread
+    String route() {
+        if (!isReadOnly()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        Context ctx = context.get();
+        if (ctx != null && ctx.client() != null) {
+            Long lastWrite = lastWriteByClient.get(ctx.client());
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < stickyWindowMillis) {
+                stickyReads.increment();
+                return PRIMARY;
+            }
+        }
+        Replica replica = next();
+        if (replica == null) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replica.routed.increment();
+        return replica.name;
+    }
+
+    private boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        Context ctx = context.get();
+        return ctx != null && ctx.readOnly();
+    }
+
+    // Smooth weighted round-robin (as in nginx): spreads picks evenly instead of in bursts
+    private synchronized Replica next() {
+        Replica best = null;
+        int total = 0;
+        for (Replica replica : replicas) {
+            if (!replica.healthy) {
+                continue;
+            }
+            replica.currentWeight += replica.weight;
+            total += replica.weight;
+            if (best == null || replica.currentWeight > best.currentWeight) {
+                best = replica;
+            }
+        }
+        if (best != null) {
+            best.currentWeight -= total;
+        }
+        return best;
+    }
+
+    private Replica replica(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${thaifood.replicas.health-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection conn = replica.dataSource.getConnection()) {
+                healthy = conn.isValid(2);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Replica {} is now {}", replica.name, healthy ? "healthy" : "down");
+            }
+            replica.healthy = healthy;
+        }
+        long cutoff = System.currentTimeMillis() - stickyWindowMillis;
+        lastWriteByClient.values().removeIf(t -> t < cutoff);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primaryWrites", primaryWrites.sum());
+        stats.put("primaryReads", primaryReads.sum());
+        stats.put("stickyReads", stickyReads.sum());
+        stats.put("stickyClients", lastWriteByClient.size());
+        stats.put("stickyWindowMillis", stickyWindowMillis);
+        Map<String, Object> r = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("weight", replica.weight);
+            s.put("healthy", replica.healthy);
+            s.put("routed", replica.routed.sum());
+            s.put("failures", replica.failures.sum());
+            r.put(replica.name, s);
+        }
+        stats.put("replicas", r);
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private final class RoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            String key = route();
+            if (PRIMARY.equals(key)) {
+                return primary.getConnection();
+            }
+            Replica replica = replica(key);
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Out until the next health check; the read falls back to the primary
+                replica.failures.increment();
+                replica.healthy = false;
+                ReplicaRouter.logger.warn("Replica {} failed, reading from primary: {}", replica.name, e.getMessage());
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
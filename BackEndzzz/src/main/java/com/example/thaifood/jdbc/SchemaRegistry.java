@@ -0,0 +1,169 @@
+package com.example.thaifood.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of column and primary-key metadata for the tables the raw-JDBC controllers use.
+ * Metadata is discovered once (at startup, or lazily on first use) instead of on every request,
+ * and can be refreshed on a schedule or through {@code POST /api/test/schema/refresh}.
+ */
+@Component
+public class SchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+
+    public static final List<String> MANAGED_TABLES = List.of("categories", "menu_items", "orders");
+
+    private final DataSource dataSource;
+    private final ConcurrentMap<String, TableSchema> schemas = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder metadataQueries = new LongAdder();
+    private volatile long lastRefreshAt;
+
+    public SchemaRegistry(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Cached schema for a table, discovering it through the caller's connection on a miss.
+     * An empty result is not cached so a table that is created later is picked up on the next call.
+     */
+    public TableSchema get(Connection conn, String tableName) throws SQLException {
+        lookups.increment();
+        TableSchema schema = schemas.get(tableName);
+        if (schema != null) {
+            return schema;
+        }
+        misses.increment();
+        schema = load(conn, tableName);
+        if (!schema.isEmpty()) {
+            schemas.put(tableName, schema);
+        }
+        return schema;
+    }
+
+    // Same as get(conn, table), borrowing a connection only when the table is not cached yet
+    public TableSchema get(String tableName) throws SQLException {
+        TableSchema schema = schemas.get(tableName);
+        if (schema != null) {
+            lookups.increment();
+            return schema;
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            return get(conn, tableName);
+        }
+    }
+
+    // Re-discover every managed or cached table on a single connection and swap the results in
+    public synchronized Map<String, TableSchema> refresh() throws SQLException {
+        // Tables cached on demand (e.g. order_items) also need to see added columns
+        Set<String> tables = new LinkedHashSet<>(MANAGED_TABLES);
+        tables.addAll(schemas.keySet());
+        try (Connection conn = dataSource.getConnection()) {
+            for (String table : tables) {
+                TableSchema schema = load(conn, table);
+                if (schema.isEmpty()) {
+                    schemas.remove(table);
+                    logger.warn("No columns found for table '{}' during schema refresh", table);
+                } else {
+                    schemas.put(table, schema);
+                }
+            }
+        }
+        lastRefreshAt = System.currentTimeMillis();
+        logger.info("Schema registry refreshed: {}", schemas.keySet());
+        return Map.copyOf(schemas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            // Not fatal: controllers fall back to lazy discovery on first use
+            logger.warn("Schema warm-up failed, tables will be discovered lazily: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${thaifood.schema.refresh-interval-ms:600000}",
+               fixedDelayString = "${thaifood.schema.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            logger.warn("Scheduled schema refresh failed, keeping cached metadata: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long total = lookups.sum();
+        long missed = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tables", new ArrayList<>(schemas.keySet()));
+        stats.put("lookups", total);
+        stats.put("misses", missed);
+        stats.put("metadataQueries", metadataQueries.sum());
+        // Before the registry every lookup was a DatabaseMetaData.getColumns round trip
+        stats.put("roundTripsSaved", total - missed);
+        stats.put("roundTripsSavedPerRequest", total == 0 ? 0.0 : (double) (total - missed) / total);
+        stats.put("lastRefreshAt", lastRefreshAt);
+        return stats;
+    }
+
+    public Map<String, TableSchema> getSchemas() {
+        return Map.copyOf(schemas);
+    }
+
+    private TableSchema load(Connection conn, String tableName) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+
+        List<TableSchema.ColumnInfo> cols = new ArrayList<>();
+        try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
+            while (rs.next()) {
+                cols.add(TableSchema.ColumnInfo.of(
+                        rs.getString("COLUMN_NAME"),
+                        rs.getInt("DATA_TYPE"),
+                        rs.getString("COLUMN_DEF"),
+                        "YES".equals(rs.getString("IS_NULLABLE")),
+                        "YES".equals(rs.getString("IS_AUTOINCREMENT")),
+                        "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))));
+            }
+        }
+        metadataQueries.increment();
+
+        Set<String> keyCols = new LinkedHashSet<>();
+        try (ResultSet rs = meta.getPrimaryKeys(null, null, tableName)) {
+            while (rs.next()) {
+                keyCols.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        metadataQueries.increment();
+
+        // Only a single-column key is usable for the WHERE pk = ? lookups
+        String primaryKey = keyCols.size() == 1 ? keyCols.iterator().next() : null;
+        logger.debug("Discovered {} columns for '{}', primary key: {}", cols.size(), tableName, primaryKey);
+        return new TableSchema(tableName, cols, primaryKey);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.thaifood.jdbc;
+
+import com.example.thaifood.jdbc.StatementMetrics.Shape;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Slow-query log and N+1 detector fed by {@link MeteredDataSource}.
+ * <p>
+ * Of the statements slower than {@code slowQueryMillis}, the slowest {@code slowQueryCapacity}
+ * are kept (a burst of merely slow ones cannot push out the worst) with their statement shape
+ * (literals already replaced by {@code ?}) and the types of their bind parameters; values are
+ * never kept. Within a request (see {@link #begin}), executions are counted per shape; a request
+ * that runs one shape more than {@code nPlusOneThreshold} times, typically a lazy association
+ * loaded row by row, is recorded as a finding and logged once per endpoint and shape. Work outside
+ * a request, and async (streamed) response bodies, are not counted.
+ */
+public class StatementDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementDiagnostics.class);
+
+    public record SlowQuery(Instant at, double durationMs, String kind, String sql, List<String> parameters,
+                            String request, boolean failed) {
+    }
+
+    public record NPlusOne(Instant at, String request, String kind, String sql, int executions, double totalMs) {
+    }
+
+    // Per request: executions and total time per shape
+    private static final class RequestStats {
+        final String request;
+        final Map<Shape, long[]> byShape = new HashMap<>();
+
+        RequestStats(String request) {
+            this.request = request;
+        }
+    }
+
+    private final long slowQueryNanos;
+    private final int nPlusOneThreshold;
+    private final Slowest slowQueries;
+    private final Ring<NPlusOne> nPlusOnes;
+    private final ThreadLocal<RequestStats> current = new ThreadLocal<>();
+    // Endpoint + shape pairs already logged, so a hot endpoint does not repeat the warning per request
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public StatementDiagnostics(long slowQueryMillis, int slowQueryCapacity, int nPlusOneThreshold, int nPlusOneCapacity) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.slowQueries = new Slowest(slowQueryCapacity);
+        this.nPlusOnes = new Ring<>(nPlusOneCapacity);
+    }
+
+    /** Starts counting statements for the current thread's request, e.g. "GET /api/orders/board". */
+    public void begin(String request) {
+        current.set(new RequestStats(request));
+    }
+
+    /**
+     * Ends counting for the current thread's request. {@code request} replaces the label given to
+     * {@link #begin} (e.g. with the matched URI pattern once the handler is known); null keeps it.
+     */
+    public void end(String request) {
+        RequestStats stats = current.get();
+        current.remove();
+        if (stats == null) {
+            return;
+        }
+        String label = request != null ? request : stats.request;
+        stats.byShape.forEach((shape, counts) -> {
+            if (counts[0] > nPlusOneThreshold) {
+                NPlusOne finding = new NPlusOne(Instant.now(), label, shape.kind(), shape.sql(), (int) counts[0],
+                        counts[1] / 1_000_000.0);
+                nPlusOnes.add(finding);
+                if (reported.size() < 10_000 && reported.add(label + '\n' + shape.kind() + shape.sql())) {
+                    logger.warn("Possible N+1: {} ran the same statement {} times ({} ms): {}",
+                            label, finding.executions(), String.format("%.1f", finding.totalMs()), shape.sql());
+                }
+            }
+        });
+    }
+
+    void executed(Shape shape, long nanos, boolean failed, List<String> parameters) {
+        RequestStats stats = current.get();
+        if (stats != null) {
+            long[] counts = stats.byShape.computeIfAbsent(shape, s -> new long[2]);
+            counts[0]++;
+            counts[1] += nanos;
+        }
+        // Most slow statements do not beat the fastest one kept, and skip building the entry
+        if (nanos >= slowQueryNanos && slowQueries.offer(nanos / 1_000_000.0)) {
+            slowQueries.add(new SlowQuery(Instant.now(), nanos / 1_000_000.0, shape.kind(), shape.sql(),
+                    parameters == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(parameters)),
+                    stats != null ? stats.request : null, failed));
+        }
+    }
+
+    // Redacted form of a bind value: its type only
+    static String redact(String setter, Object value) {
+        if (value == null || setter.equals("setNull")) {
+            return "NULL";
+        }
+        return setter.equals("setObject") ? value.getClass().getSimpleName() : setter.substring(3);
+    }
+
+    // Slowest first
+    public List<SlowQuery> slowQueries(int limit) {
+        List<SlowQuery> queries = slowQueries.snapshot();
+        queries.sort(Comparator.comparingDouble(SlowQuery::durationMs).reversed());
+        return queries.size() > limit ? queries.subList(0, limit) : queries;
+    }
+
+    // Most recent first
+    public List<NPlusOne> nPlusOnes(int limit) {
+        List<NPlusOne> findings = nPlusOnes.snapshot();
+        findings.sort(Comparator.comparing(NPlusOne::at).reversed());
+        return findings.size() > limit ? findings.subList(0, limit) : findings;
+    }
+
+    public void clear() {
+        slowQueries.clear();
+        nPlusOnes.clear();
+        reported.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("slowQueryMillis", TimeUnit.NANOSECONDS.toMillis(slowQueryNanos));
+        stats.put("slowQueriesRecorded", slowQueries.written());
+        stats.put("slowQueryCapacity", slowQueries.capacity());
+        stats.put("nPlusOneThreshold", nPlusOneThreshold);
+        stats.put("nPlusOnesRecorded", nPlusOnes.written());
+        stats.put("nPlusOneCapacity", nPlusOnes.capacity());
+        return stats;
+    }
+
+    // The slowest queries seen, at most capacity: a min-heap by duration, so a newcomer only has to
+    // beat the fastest one kept. The bar is read without the lock; only entries that clear it lock.
+    private static final class Slowest {
+        private final int capacity;
+        private final PriorityQueue<SlowQuery> heap;
+        private final AtomicLong offered = new AtomicLong();
+        // Duration a newcomer must exceed; stays below every duration until the heap is full
+        private volatile double bar = -1;
+
+        Slowest(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.heap = new PriorityQueue<>(this.capacity, Comparator.comparingDouble(SlowQuery::durationMs));
+        }
+
+        // Counts a slow statement; true when it would be kept
+        boolean offer(double durationMs) {
+            offered.incrementAndGet();
+            return durationMs > bar;
+        }
+
+        void add(SlowQuery query) {
+            synchronized (heap) {
+                if (heap.size() < capacity) {
+                    heap.add(query);
+                } else if (query.durationMs() > heap.peek().durationMs()) {
+                    heap.poll();
+                    heap.add(query);
+                }
+                if (heap.size() == capacity) {
+                    bar = heap.peek().durationMs();
+                }
+            }
+        }
+
+        List<SlowQuery> snapshot() {
+            synchronized (heap) {
+                return new ArrayList<>(heap);
+            }
+        }
+
+        void clear() {
+            synchronized (heap) {
+                heap.clear();
+                bar = -1;
+            }
+        }
+
+        long written() {
+            return offered.get();
+        }
+
+        int capacity() {
+            return capacity;
+        }
+    }
+
+    // Fixed-size buffer that overwrites its oldest entry; writers never block each other
+    private static final class Ring<T> {
+        private final AtomicReferenceArray<T> slots;
+        private final AtomicLong written = new AtomicLong();
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        }
+
+        void add(T item) {
+            slots.set((int) (written.getAndIncrement() % slots.length()), item);
+        }
+
+        List<T> snapshot() {
+            List<T> items = new ArrayList<>(slots.length());
+            for (int i = 0; i < slots.length(); i++) {
+                T item = slots.get(i);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return items;
+        }
+
+        void clear() {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+        }
+
+        long written() {
+            return written.get();
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+    }
+}
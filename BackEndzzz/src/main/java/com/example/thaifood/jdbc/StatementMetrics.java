@@ -0,0 +1,216 @@
+package com.example.thaifood.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement-shape meters for {@link MeteredDataSource}. A shape is the SQL with comments
+ * removed, literals replaced by {@code ?}, whitespace collapsed and repeated placeholder groups
+ * (IN lists, multi-row VALUES) folded into one, so every order id or batch size maps to the same
+ * time series. Meters are created once per shape and looked up by the exact SQL string afterwards,
+ * which keeps the per-statement cost to a map lookup and a timer update.
+ */
+public class StatementMetrics {
+
+    public static final String STATEMENTS = "thaifood.jdbc.statements";
+    public static final String ROWS = "thaifood.jdbc.rows";
+    // Shape tag of statements past the max-shapes limit
+    public static final String OTHER = "other";
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final int MAX_CACHED_SQL = 10_000;
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(?:, \\?)+\\)");
+    private static final Pattern VALUE_ROWS = Pattern.compile("(\\(\\?\\))(?:, \\(\\?\\))+");
+
+    public enum Kind {
+        QUERY, UPDATE, BATCH, EXECUTE;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Meters of one statement shape and kind. */
+    public static final class Shape {
+        private final MeterRegistry registry;
+        private final String sql;
+        private final Kind kind;
+        private final Timer success;
+        // Registered on the first failure, so shapes that never fail add no error series
+        private volatile Timer error;
+        private final DistributionSummary rows;
+
+        Shape(MeterRegistry registry, String sql, Kind kind) {
+            this.registry = registry;
+            this.sql = sql;
+            this.kind = kind;
+            this.success = timer(registry, sql, kind, "success");
+            this.rows = DistributionSummary.builder(ROWS)
+                    .description("Rows read by queries or changed by updates, per statement")
+                    .tag("shape", sql)
+                    .tag("kind", kind.tag)
+                    .register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String sql, Kind kind, String outcome) {
+            return Timer.builder(STATEMENTS)
+                    .description("Statement execution time; for queries until the result set is returned")
+                    .tag("shape", sql)
+                    .tag("kind", kind.tag)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        public String kind() {
+            return kind.tag;
+        }
+
+        void executed(long nanos, boolean failed) {
+            if (!failed) {
+                success.record(nanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+            Timer timer = error;
+            if (timer == null) {
+                timer = timer(registry, sql, kind, "error");
+                error = timer;
+            }
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void rows(long count) {
+            rows.record(count);
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final int maxShapes;
+    // Per kind: exact SQL -> meters, so the normalised form is only computed on a miss
+    private final Map<Kind, ConcurrentMap<String, Shape>> bySql = new EnumMap<>(Kind.class);
+    // Per kind: normalised SQL -> meters
+    private final Map<Kind, ConcurrentMap<String, Shape>> byShape = new EnumMap<>(Kind.class);
+
+    public StatementMetrics(MeterRegistry registry, int maxShapes) {
+        this.registry = registry;
+        this.maxShapes = maxShapes;
+        for (Kind kind : Kind.values()) {
+            bySql.put(kind, new ConcurrentHashMap<>());
+            byShape.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    public Shape shape(String sql, Kind kind) {
+        ConcurrentMap<String, Shape> cached = bySql.get(kind);
+        Shape shape = cached.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        ConcurrentMap<String, Shape> shapes = byShape.get(kind);
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            String tag = shapeCount() >= maxShapes ? OTHER : normalized;
+            shape = shapes.computeIfAbsent(tag, t -> new Shape(registry, t, kind));
+        }
+        // Literal-heavy ad-hoc SQL (raw-query) is normalised every time once the cache is full
+        if (cached.size() < MAX_CACHED_SQL) {
+            cached.put(sql, shape);
+        }
+        return shape;
+    }
+
+    public int shapeCount() {
+        int count = 0;
+        for (ConcurrentMap<String, Shape> shapes : byShape.values()) {
+            count += shapes.size();
+        }
+        return count;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), 256));
+        int n = sql.length();
+        int i = 0;
+        boolean space = false;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                space = true;
+            } else if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i + 2);
+                i = end < 0 ? n : end + 1;
+                space = true;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+                space = true;
+            } else {
+                if (space && out.length() > 0) {
+                    out.append(' ');
+                }
+                space = false;
+                if (c == '\'') {
+                    // String literal; '' is an escaped quote
+                    i++;
+                    while (i < n) {
+                        if (sql.charAt(i) == '\'') {
+                            if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                                i += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        i++;
+                    }
+                    i++;
+                    out.append('?');
+                } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                    while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                        i++;
+                    }
+                    out.append('?');
+                } else if (c == ',' || c == '(' || c == ')') {
+                    // Spacing around punctuation varies by author; normalise to "a, b" and "(a)"
+                    int len = out.length();
+                    if (len > 0 && out.charAt(len - 1) == ' ' && c != '(') {
+                        out.setLength(len - 1);
+                    }
+                    out.append(c);
+                    i++;
+                    space = c == ',';
+                    if (c == '(') {
+                        while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                            i++;
+                        }
+                    }
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+        }
+        String shape = VALUE_ROWS.matcher(IN_LIST.matcher(out).replaceAll("(?)")).replaceAll("$1, ...");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    // True when the last character written continues a name such as m1_0 or col2
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '`' || last == '"';
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.thaifood.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a table's columns, their defaults and the primary key as reported by
+ * DatabaseMetaData. Column lookups are case-insensitive and return the name exactly as the
+ * database spells it.
+ */
+public final class TableSchema {
+
+    /**
+     * Per-column metadata. {@code defaultKnown} is false when the database computes the default
+     * itself (CURRENT_TIMESTAMP, expressions, generated columns), so its value can only be read back.
+     */
+    public record ColumnInfo(String name, boolean autoIncrement, boolean defaultKnown, Object defaultValue) {
+
+        public static ColumnInfo of(String name, int sqlType, String columnDef, boolean nullable,
+                                    boolean autoIncrement, boolean generated) {
+            if (autoIncrement || generated) {
+                return new ColumnInfo(name, autoIncrement, false, null);
+            }
+            if (columnDef == null || columnDef.equalsIgnoreCase("NULL")) {
+                // NOT NULL without a default has to be supplied by the insert
+                return new ColumnInfo(name, false, nullable, null);
+            }
+            try {
+                Object value = parseLiteral(sqlType, columnDef);
+                return new ColumnInfo(name, false, value != null, value);
+            } catch (IllegalArgumentException e) {
+                return new ColumnInfo(name, false, false, null);
+            }
+        }
+
+        // Value as the driver would read it back, or null when the default is an expression
+        private static Object parseLiteral(int sqlType, String def) {
+            String upper = def.toUpperCase(Locale.ROOT);
+            if (upper.contains("CURRENT_") || upper.contains("(")) {
+                return null;
+            }
+            String text = def.length() >= 2 && def.startsWith("'") && def.endsWith("'")
+                    ? def.substring(1, def.length() - 1) : def;
+            return switch (sqlType) {
+                case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> Integer.valueOf(text);
+                case Types.BIGINT -> Long.valueOf(text);
+                case Types.DECIMAL, Types.NUMERIC -> new BigDecimal(text);
+                case Types.REAL, Types.FLOAT, Types.DOUBLE -> Double.valueOf(text);
+                case Types.BIT, Types.BOOLEAN -> text.equals("1") || text.equalsIgnoreCase("b'1'")
+                        || text.equalsIgnoreCase("true");
+                case Types.TIMESTAMP -> Timestamp.valueOf(text).toLocalDateTime();
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR -> text;
+                default -> null;
+            };
+        }
+    }
+
+    private final String tableName;
+    private final List<String> columns;
+    private final String primaryKey;
+    private final Map<String, String> byLowerName;
+    private final Map<String, ColumnInfo> infoByLowerName;
+    private final long loadedAt;
+
+    public TableSchema(String tableName, List<ColumnInfo> columnInfo, String primaryKey) {
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+        List<String> names = new ArrayList<>(columnInfo.size());
+        Map<String, String> index = new LinkedHashMap<>();
+        Map<String, ColumnInfo> infos = new HashMap<>();
+        for (ColumnInfo info : columnInfo) {
+            String lower = info.name().toLowerCase(Locale.ROOT);
+            names.add(info.name());
+            index.putIfAbsent(lower, info.name());
+            infos.putIfAbsent(lower, info);
+        }
+        this.columns = List.copyOf(names);
+        this.byLowerName = Collections.unmodifiableMap(index);
+        this.infoByLowerName = Collections.unmodifiableMap(infos);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    public boolean hasColumn(String name) {
+        return byLowerName.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    // Actual column name for a case-insensitive match, or null when the table has no such column
+    public String column(String name) {
+        return byLowerName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+
+    // Primary key from metadata; falls back to the first candidate present when the table declares none
+    public String primaryKeyOr(String... candidates) {
+        if (primaryKey != null) {
+            return primaryKey;
+        }
+        for (String c : candidates) {
+            String found = column(c);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    public ColumnInfo columnInfo(String name) {
+        return infoByLowerName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The row an INSERT just created, assembled without reading it back: the written values,
+     * the generated key and the literal column defaults, in table column order. Columns whose
+     * default the database computes (e.g. CURRENT_TIMESTAMP) are omitted.
+     */
+    public Map<String, Object> rowFromInsert(List<String> insertCols, List<Object> insertVals, Object generatedKey) {
+        Map<String, Object> written = new HashMap<>();
+        for (int i = 0; i < insertCols.size(); i++) {
+            Object value = insertVals.get(i);
+            // match what the driver returns for DATETIME columns
+            written.put(insertCols.get(i).toLowerCase(Locale.ROOT),
+                    value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : value);
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String c : columns) {
+            String lower = c.toLowerCase(Locale.ROOT);
+            ColumnInfo info = infoByLowerName.get(lower);
+            if (written.containsKey(lower)) {
+                row.put(c, written.get(lower));
+            } else if (generatedKey != null && (info.autoIncrement() || c.equals(primaryKey))) {
+                row.put(c, generatedKey);
+            } else if (info.defaultKnown()) {
+                row.put(c, info.defaultValue());
+            }
+        }
+        return row;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+}
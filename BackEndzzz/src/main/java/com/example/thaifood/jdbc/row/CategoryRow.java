@@ -0,0 +1,65 @@
+package com.example.thaifood.jdbc.row;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+// One row of categories
+@JsonSerialize(using = TableRowSerializer.class)
+public record CategoryRow(long id,
+                          String categoryName,
+                          String name,
+                          String description,
+                          LocalDateTime createdAt,
+                          int nulls,
+                          Object[] extras,
+                          RowShape shape) implements TableRow {
+
+    static final int ID = 0;
+    static final int CATEGORY_NAME = 1;
+    static final int NAME = 2;
+    static final int DESCRIPTION = 3;
+    static final int CREATED_AT = 4;
+
+    public static final TableRowMapper<CategoryRow> MAPPER = new TableRowMapper<>(
+            new String[]{"category_id", "id", "categoryId"},
+            new String[]{"category_name"},
+            new String[]{"name"},
+            new String[]{"description"},
+            new String[]{"created_at"}) {
+
+        @Override
+        protected CategoryRow map(ResultSet rs, RowShape shape) throws SQLException {
+            int nulls = 0;
+            int c;
+            long id = getLong(rs, c = shape.column(ID));
+            nulls |= nullBit(rs, c, ID);
+            String categoryName = getString(rs, c = shape.column(CATEGORY_NAME));
+            nulls |= nullBit(rs, c, CATEGORY_NAME);
+            String name = getString(rs, c = shape.column(NAME));
+            nulls |= nullBit(rs, c, NAME);
+            String description = getString(rs, c = shape.column(DESCRIPTION));
+            nulls |= nullBit(rs, c, DESCRIPTION);
+            LocalDateTime createdAt = getDateTime(rs, c = shape.column(CREATED_AT));
+            nulls |= nullBit(rs, c, CREATED_AT);
+            return new CategoryRow(id, categoryName, name, description, createdAt, nulls, shape.readExtras(rs), shape);
+        }
+    };
+
+    @Override
+    public void writeField(int field, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        switch (field) {
+            case ID -> gen.writeNumber(id);
+            case CATEGORY_NAME -> gen.writeString(categoryName);
+            case NAME -> gen.writeString(name);
+            case DESCRIPTION -> gen.writeString(description);
+            case CREATED_AT -> provider.defaultSerializeValue(createdAt, gen);
+            default -> throw new IllegalArgumentException("Unknown categories field " + field);
+        }
+    }
+}
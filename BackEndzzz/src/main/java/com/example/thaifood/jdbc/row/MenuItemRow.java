@@ -0,0 +1,97 @@
+package com.example.thaifood.jdbc.row;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+// One row of menu_items
+@JsonSerialize(using = TableRowSerializer.class)
+public record MenuItemRow(long idItem,
+                          String itemName,
+                          String name,
+                          String description,
+                          BigDecimal price,
+                          String imageUrl,
+                          long categoryId,
+                          boolean isAvailable,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt,
+                          int nulls,
+                          Object[] extras,
+                          RowShape shape) implements TableRow {
+
+    public static final int ID_ITEM = 0;
+    public static final int ITEM_NAME = 1;
+    public static final int NAME = 2;
+    public static final int DESCRIPTION = 3;
+    public static final int PRICE = 4;
+    public static final int IMAGE_URL = 5;
+    public static final int CATEGORY_ID = 6;
+    public static final int IS_AVAILABLE = 7;
+    public static final int CREATED_AT = 8;
+    public static final int UPDATED_AT = 9;
+
+    public static final TableRowMapper<MenuItemRow> MAPPER = new TableRowMapper<>(
+            new String[]{"id_item", "id", "Iditem"},
+            new String[]{"item_name"},
+            new String[]{"name"},
+            new String[]{"description"},
+            new String[]{"price"},
+            new String[]{"image_url"},
+            new String[]{"category_id"},
+            new String[]{"is_available"},
+            new String[]{"created_at"},
+            new String[]{"updated_at"}) {
+
+        @Override
+        protected MenuItemRow map(ResultSet rs, RowShape shape) throws SQLException {
+            int nulls = 0;
+            int c;
+            long idItem = getLong(rs, c = shape.column(ID_ITEM));
+            nulls |= nullBit(rs, c, ID_ITEM);
+            String itemName = getString(rs, c = shape.column(ITEM_NAME));
+            nulls |= nullBit(rs, c, ITEM_NAME);
+            String name = getString(rs, c = shape.column(NAME));
+            nulls |= nullBit(rs, c, NAME);
+            String description = getString(rs, c = shape.column(DESCRIPTION));
+            nulls |= nullBit(rs, c, DESCRIPTION);
+            BigDecimal price = getDecimal(rs, c = shape.column(PRICE));
+            nulls |= nullBit(rs, c, PRICE);
+            String imageUrl = getString(rs, c = shape.column(IMAGE_URL));
+            nulls |= nullBit(rs, c, IMAGE_URL);
+            long categoryId = getLong(rs, c = shape.column(CATEGORY_ID));
+            nulls |= nullBit(rs, c, CATEGORY_ID);
+            boolean isAvailable = getBoolean(rs, c = shape.column(IS_AVAILABLE));
+            nulls |= nullBit(rs, c, IS_AVAILABLE);
+            LocalDateTime createdAt = getDateTime(rs, c = shape.column(CREATED_AT));
+            nulls |= nullBit(rs, c, CREATED_AT);
+            LocalDateTime updatedAt = getDateTime(rs, c = shape.column(UPDATED_AT));
+            nulls |= nullBit(rs, c, UPDATED_AT);
+            return new MenuItemRow(idItem, itemName, name, description, price, imageUrl, categoryId,
+                    isAvailable, createdAt, updatedAt, nulls, shape.readExtras(rs), shape);
+        }
+    };
+
+    @Override
+    public void writeField(int field, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        switch (field) {
+            case ID_ITEM -> gen.writeNumber(idItem);
+            case ITEM_NAME -> gen.writeString(itemName);
+            case NAME -> gen.writeString(name);
+            case DESCRIPTION -> gen.writeString(description);
+            case PRICE -> gen.writeNumber(price);
+            case IMAGE_URL -> gen.writeString(imageUrl);
+            case CATEGORY_ID -> gen.writeNumber(categoryId);
+            case IS_AVAILABLE -> gen.writeBoolean(isAvailable);
+            case CREATED_AT -> provider.defaultSerializeValue(createdAt, gen);
+            case UPDATED_AT -> provider.defaultSerializeValue(updatedAt, gen);
+            default -> throw new IllegalArgumentException("Unknown menu_items field " + field);
+        }
+    }
+}
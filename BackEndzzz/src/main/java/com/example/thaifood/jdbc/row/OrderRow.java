@@ -0,0 +1,79 @@
+package com.example.thaifood.jdbc.row;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+// One row of orders; covers both the raw-JDBC columns and the ones the Order entity writes
+@JsonSerialize(using = TableRowSerializer.class)
+public record OrderRow(long id,
+                       long customerId,
+                       String customerName,
+                       LocalDateTime orderDate,
+                       String status,
+                       BigDecimal amount,
+                       BigDecimal totalAmount,
+                       int nulls,
+                       Object[] extras,
+                       RowShape shape) implements TableRow {
+
+    public static final int ID = 0;
+    public static final int CUSTOMER_ID = 1;
+    public static final int CUSTOMER_NAME = 2;
+    public static final int ORDER_DATE = 3;
+    public static final int STATUS = 4;
+    public static final int AMOUNT = 5;
+    public static final int TOTAL_AMOUNT = 6;
+
+    public static final TableRowMapper<OrderRow> MAPPER = new TableRowMapper<>(
+            new String[]{"id"},
+            new String[]{"customer_id"},
+            new String[]{"customer_name"},
+            new String[]{"order_date"},
+            new String[]{"status"},
+            new String[]{"amount"},
+            new String[]{"total_amount"}) {
+
+        @Override
+        protected OrderRow map(ResultSet rs, RowShape shape) throws SQLException {
+            int nulls = 0;
+            int c;
+            long id = getLong(rs, c = shape.column(ID));
+            nulls |= nullBit(rs, c, ID);
+            long customerId = getLong(rs, c = shape.column(CUSTOMER_ID));
+            nulls |= nullBit(rs, c, CUSTOMER_ID);
+            String customerName = getString(rs, c = shape.column(CUSTOMER_NAME));
+            nulls |= nullBit(rs, c, CUSTOMER_NAME);
+            LocalDateTime orderDate = getDateTime(rs, c = shape.column(ORDER_DATE));
+            nulls |= nullBit(rs, c, ORDER_DATE);
+            String status = getString(rs, c = shape.column(STATUS));
+            nulls |= nullBit(rs, c, STATUS);
+            BigDecimal amount = getDecimal(rs, c = shape.column(AMOUNT));
+            nulls |= nullBit(rs, c, AMOUNT);
+            BigDecimal totalAmount = getDecimal(rs, c = shape.column(TOTAL_AMOUNT));
+            nulls |= nullBit(rs, c, TOTAL_AMOUNT);
+            return new OrderRow(id, customerId, customerName, orderDate, status, amount, totalAmount,
+                    nulls, shape.readExtras(rs), shape);
+        }
+    };
+
+    @Override
+    public void writeField(int field, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        switch (field) {
+            case ID -> gen.writeNumber(id);
+            case CUSTOMER_ID -> gen.writeNumber(customerId);
+            case CUSTOMER_NAME -> gen.writeString(customerName);
+            case ORDER_DATE -> provider.defaultSerializeValue(orderDate, gen);
+            case STATUS -> gen.writeString(status);
+            case AMOUNT -> gen.writeNumber(amount);
+            case TOTAL_AMOUNT -> gen.writeNumber(totalAmount);
+            default -> throw new IllegalArgumentException("Unknown orders field " + field);
+        }
+    }
+}
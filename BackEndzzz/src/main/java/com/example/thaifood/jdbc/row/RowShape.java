@@ -0,0 +1,101 @@
+package com.example.thaifood.jdbc.row;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column layout of one statement's result, resolved once against a record's field list.
+ * Fields the result does not contain map to column 0; columns the record has no field for
+ * are kept as "extras" so nothing the table returns is dropped from the response.
+ */
+public final class RowShape {
+
+    private final String[] labels;
+    private final int[] columnOfField;
+    private final int[] fieldOfColumn;
+    private final int[] extraColumns;
+
+    private RowShape(String[] labels, int[] columnOfField, int[] fieldOfColumn, int[] extraColumns) {
+        this.labels = labels;
+        this.columnOfField = columnOfField;
+        this.fieldOfColumn = fieldOfColumn;
+        this.extraColumns = extraColumns;
+    }
+
+    // fieldAliases[f] lists the column names field f may appear under, in order of preference
+    static RowShape resolve(ResultSetMetaData md, String[][] fieldAliases) throws SQLException {
+        int count = md.getColumnCount();
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+        }
+
+        int[] columnOfField = new int[fieldAliases.length];
+        int[] fieldOfColumn = new int[count];
+        Arrays.fill(fieldOfColumn, -1);
+        for (int f = 0; f < fieldAliases.length; f++) {
+            for (String alias : fieldAliases[f]) {
+                int column = indexOf(labels, alias);
+                if (column > 0 && fieldOfColumn[column - 1] < 0) {
+                    columnOfField[f] = column;
+                    fieldOfColumn[column - 1] = f;
+                    break;
+                }
+            }
+        }
+
+        int extras = 0;
+        for (int field : fieldOfColumn) {
+            if (field < 0) {
+                extras++;
+            }
+        }
+        int[] extraColumns = new int[extras];
+        for (int i = 0, e = 0; i < count; i++) {
+            if (fieldOfColumn[i] < 0) {
+                extraColumns[e++] = i + 1;
+            }
+        }
+        return new RowShape(labels, columnOfField, fieldOfColumn, extraColumns);
+    }
+
+    private static int indexOf(String[] labels, String name) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(name)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    // 1-based column index for a field, or 0 when the result does not contain it
+    public int column(int field) {
+        return columnOfField[field];
+    }
+
+    public int columnCount() {
+        return labels.length;
+    }
+
+    public String label(int column) {
+        return labels[column - 1];
+    }
+
+    // Field index for a 1-based column, or -1 when the column is an extra
+    public int fieldOf(int column) {
+        return fieldOfColumn[column - 1];
+    }
+
+    Object[] readExtras(ResultSet rs) throws SQLException {
+        if (extraColumns.length == 0) {
+            return null;
+        }
+        Object[] values = new Object[extraColumns.length];
+        for (int i = 0; i < extraColumns.length; i++) {
+            values[i] = rs.getObject(extraColumns[i]);
+        }
+        return values;
+    }
+}
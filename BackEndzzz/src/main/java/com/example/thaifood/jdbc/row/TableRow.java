@@ -0,0 +1,27 @@
+package com.example.thaifood.jdbc.row;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * A row mapped into a typed record. Nullable columns can still use primitive fields:
+ * SQL NULLs are tracked in a bit mask rather than by boxing.
+ */
+public interface TableRow {
+
+    RowShape shape();
+
+    // Bit f is set when field f was SQL NULL
+    int nulls();
+
+    // Values of the columns the record has no field for, in column order (null when none)
+    Object[] extras();
+
+    void writeField(int field, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+    default boolean isNull(int field) {
+        return (nulls() & (1 << field)) != 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.thaifood.jdbc.row;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps rows into typed records by column index. The index of every field is resolved once
+ * per statement shape (keyed by SQL text) instead of looking each cell up by name.
+ */
+public abstract class TableRowMapper<R extends TableRow> {
+
+    private final String[][] fieldAliases;
+    private final ConcurrentMap<String, RowShape> shapes = new ConcurrentHashMap<>();
+
+    protected TableRowMapper(String[]... fieldAliases) {
+        this.fieldAliases = fieldAliases;
+    }
+
+    protected abstract R map(ResultSet rs, RowShape shape) throws SQLException;
+
+    public RowShape shape(String sql, ResultSet rs) throws SQLException {
+        RowShape shape = shapes.get(sql);
+        // A schema change alters the column count; re-resolve rather than read the wrong columns
+        if (shape == null || shape.columnCount() != rs.getMetaData().getColumnCount()) {
+            shape = RowShape.resolve(rs.getMetaData(), fieldAliases);
+            shapes.put(sql, shape);
+        }
+        return shape;
+    }
+
+    public List<R> mapAll(String sql, ResultSet rs) throws SQLException {
+        RowShape shape = shape(sql, rs);
+        List<R> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(map(rs, shape));
+        }
+        return rows;
+    }
+
+    // Current row only; the caller has already positioned the result set
+    public R mapRow(String sql, ResultSet rs) throws SQLException {
+        return map(rs, shape(sql, rs));
+    }
+
+    public R mapRow(ResultSet rs, RowShape shape) throws SQLException {
+        return map(rs, shape);
+    }
+
+    // Typed getters treat an absent column (index 0) like NULL
+
+    protected static long getLong(ResultSet rs, int column) throws SQLException {
+        return column == 0 ? 0L : rs.getLong(column);
+    }
+
+    // DECIMAL columns stay exact (and keep their scale, e.g. 59.50) instead of going through double
+    protected static BigDecimal getDecimal(ResultSet rs, int column) throws SQLException {
+        return column == 0 ? null : rs.getBigDecimal(column);
+    }
+
+    protected static boolean getBoolean(ResultSet rs, int column) throws SQLException {
+        return column != 0 && rs.getBoolean(column);
+    }
+
+    protected static String getString(ResultSet rs, int column) throws SQLException {
+        return column == 0 ? null : rs.getString(column);
+    }
+
+    protected static LocalDateTime getDateTime(ResultSet rs, int column) throws SQLException {
+        return column == 0 ? null : rs.getObject(column, LocalDateTime.class);
+    }
+
+    // Null bit for field f after reading it, to be OR-ed into the record's mask
+    protected static int nullBit(ResultSet rs, int column, int field) throws SQLException {
+        return column == 0 || rs.wasNull() ? 1 << field : 0;
+    }
+}
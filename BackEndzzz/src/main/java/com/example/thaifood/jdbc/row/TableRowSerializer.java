@@ -0,0 +1,41 @@
+package com.example.thaifood.jdbc.row;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link TableRow} as a JSON object keyed by the column labels of the statement
+ * it came from, in column order, matching the shape the map-based rows produced.
+ */
+public class TableRowSerializer extends StdSerializer<TableRow> {
+
+    private static final long serialVersionUID = 1L;
+
+    public TableRowSerializer() {
+        super(TableRow.class);
+    }
+
+    @Override
+    public void serialize(TableRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        RowShape shape = row.shape();
+        Object[] extras = row.extras();
+        int extra = 0;
+
+        gen.writeStartObject();
+        for (int column = 1; column <= shape.columnCount(); column++) {
+            gen.writeFieldName(shape.label(column));
+            int field = shape.fieldOf(column);
+            if (field < 0) {
+                provider.defaultSerializeValue(extras[extra++], gen);
+            } else if (row.isNull(field)) {
+                gen.writeNull();
+            } else {
+                row.writeField(field, gen, provider);
+            }
+        }
+        gen.writeEndObject();
+    }
+}
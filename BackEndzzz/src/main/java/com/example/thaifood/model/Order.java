@@ -1,6 +1,7 @@
 package com.example.thaifood.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,7 +25,9 @@ public class Order {
     @Column(nullable = false)
     private String status; // PENDING, PROCESSING, COMPLETED, CANCELLED
 
+    // Orders loaded without the entity graph initialize their items in batches of 50, not one query each
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
         name = "order_items",
         joinColumns = @JoinColumn(name = "order_id"),
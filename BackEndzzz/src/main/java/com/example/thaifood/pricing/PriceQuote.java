@@ -0,0 +1,32 @@
+package com.example.thaifood.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Server-side price of one order, every amount in satang (1/100 baht).
+ * {@code unitPrices[i]} is the price {@code menuIds[i]} was charged at, kept so the order
+ * line records what the customer paid even after the menu price changes.
+ */
+public record PriceQuote(long[] menuIds,
+                         int[] quantities,
+                         long[] unitPrices,
+                         long subtotal,
+                         int discountBps,
+                         long discount,
+                         long serviceCharge,
+                         long vat,
+                         long total,
+                         long catalogVersion) {
+
+    public int lines() {
+        return menuIds.length;
+    }
+
+    public BigDecimal totalBaht() {
+        return baht(total);
+    }
+
+    public static BigDecimal baht(long satang) {
+        return BigDecimal.valueOf(satang, 2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.thaifood.pricing;
+
+import com.example.thaifood.cache.CatalogSnapshot;
+import com.example.thaifood.jdbc.row.MenuItemRow;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Unit prices in satang for one catalog snapshot, held in parallel primitive arrays sorted by
+ * menu id so a lookup is a binary search with no boxing or allocation.
+ */
+final class PriceTable {
+
+    static final long UNPRICED = -1;
+
+    private final CatalogSnapshot<MenuItemRow> source;
+    private final long[] ids;
+    private final long[] prices;
+    private final boolean[] available;
+
+    PriceTable(CatalogSnapshot<MenuItemRow> source) {
+        List<MenuItemRow> rows = source.getItems().stream()
+                .filter(row -> !row.isNull(MenuItemRow.ID_ITEM))
+                .sorted(Comparator.comparingLong(MenuItemRow::idItem))
+                .toList();
+        this.source = source;
+        this.ids = new long[rows.size()];
+        this.prices = new long[rows.size()];
+        this.available = new boolean[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            MenuItemRow row = rows.get(i);
+            ids[i] = row.idItem();
+            // DECIMAL(10,2) read exactly: baht to satang is a decimal shift, no binary rounding involved
+            prices[i] = row.isNull(MenuItemRow.PRICE) ? UNPRICED
+                    : row.price().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            available[i] = row.isNull(MenuItemRow.IS_AVAILABLE) || row.isAvailable();
+        }
+    }
+
+    CatalogSnapshot<MenuItemRow> source() {
+        return source;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Slot of the menu id, or a negative number when it is not on the menu
+    int indexOf(long menuId) {
+        return Arrays.binarySearch(ids, menuId);
+    }
+
+    long price(int index) {
+        return prices[index];
+    }
+
+    boolean isAvailable(int index) {
+        return available[index];
+    }
+}
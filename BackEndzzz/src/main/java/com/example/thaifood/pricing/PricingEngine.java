@@ -0,0 +1,174 @@
+package com.example.thaifood.pricing;
+
+import com.example.thaifood.cache.CatalogSnapshot;
+import com.example.thaifood.cache.MenuCatalog;
+import com.example.thaifood.jdbc.row.MenuItemRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices orders on the server from the cached menu, so the total no longer comes from the client.
+ * All arithmetic is on {@code long} satang and rates are in basis points (1/100 of a percent):
+ * <pre>
+ *   subtotal       = sum(unit price * quantity)
+ *   discount       = subtotal * discountBps
+ *   service charge = (subtotal - discount) * serviceChargeBps
+ *   VAT            = (subtotal - discount + service charge) * vatBps
+ *   total          = subtotal - discount + service charge + VAT
+ * </pre>
+ * each percentage rounded half-up to the satang. The per-line loop only reads primitive arrays;
+ * the quote itself is the only allocation per order.
+ */
+@Component
+public class PricingEngine {
+
+    private static final int BPS = 10_000;
+
+    private final MenuCatalog menuCatalog;
+    private final int vatBps;
+    private final int serviceChargeBps;
+    private final int maxDiscountBps;
+    private final int maxQuantity;
+    private final int maxLines;
+    private volatile PriceTable table;
+
+    public PricingEngine(MenuCatalog menuCatalog,
+                         @Value("${thaifood.pricing.vat-bps:700}") int vatBps,
+                         @Value("${thaifood.pricing.service-charge-bps:0}") int serviceChargeBps,
+                         @Value("${thaifood.pricing.max-discount-bps:0}") int maxDiscountBps,
+                         @Value("${thaifood.pricing.max-quantity:999}") int maxQuantity,
+                         @Value("${thaifood.pricing.max-lines:200}") int maxLines) {
+        this.menuCatalog = menuCatalog;
+        this.vatBps = vatBps;
+        this.serviceChargeBps = serviceChargeBps;
+        this.maxDiscountBps = maxDiscountBps;
+        this.maxQuantity = maxQuantity;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Prices the {@code items} of an order request: [{"menu_id": 1, "quantity": 2}, ...], with an
+     * optional {@code discount_bps}. Every create path goes through here; an order without items is
+     * rejected, since its amount could only have come from the client.
+     */
+    public PriceQuote quote(Map<String, Object> orderRequest) {
+        Object items = orderRequest.get("items");
+        if (!(items instanceof List<?> lines) || lines.isEmpty()) {
+            throw new IllegalArgumentException("items must be a non-empty list");
+        }
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("Too many items, max " + maxLines);
+        }
+        // Repeats of a menu item become one line with the summed quantity, as in OrderService.createOrder
+        Map<Long, Integer> portions = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (!(lines.get(i) instanceof Map<?, ?> line)) {
+                throw new IllegalArgumentException("items[" + i + "] must be an object");
+            }
+            Object id = line.get("menu_id") != null ? line.get("menu_id") : line.get("id_item");
+            if (id == null) {
+                throw new IllegalArgumentException("items[" + i + "].menu_id is required");
+            }
+            long menuId = toLong(id, "items[" + i + "].menu_id");
+            Object value = line.get("quantity");
+            int quantity = value == null ? 1 : toInt(value, "items[" + i + "].quantity");
+            if (quantity < 1 || quantity > maxQuantity) {
+                throw new IllegalArgumentException("quantity must be between 1 and " + maxQuantity);
+            }
+            // capped per line above, so the sum cannot overflow; quote() checks it against maxQuantity
+            portions.merge(menuId, quantity, Integer::sum);
+        }
+        long[] menuIds = new long[portions.size()];
+        int[] quantities = new int[portions.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> line : portions.entrySet()) {
+            menuIds[i] = line.getKey();
+            quantities[i++] = line.getValue();
+        }
+        Object discount = orderRequest.get("discount_bps");
+        int discountBps = discount == null ? 0 : toInt(discount, "discount_bps");
+        return quote(menuIds, quantities, discountBps);
+    }
+
+    public PriceQuote quote(long[] menuIds, int[] quantities, int discountBps) {
+        if (discountBps < 0 || discountBps > maxDiscountBps) {
+            throw new IllegalArgumentException("discount_bps must be between 0 and " + maxDiscountBps);
+        }
+        PriceTable prices = table();
+        int lines = menuIds.length;
+        long[] unitPrices = new long[lines];
+        long subtotal = 0;
+        try {
+            for (int i = 0; i < lines; i++) {
+                int quantity = quantities[i];
+                if (quantity < 1 || quantity > maxQuantity) {
+                    throw new IllegalArgumentException("quantity must be between 1 and " + maxQuantity);
+                }
+                int slot = prices.indexOf(menuIds[i]);
+                if (slot < 0) {
+                    throw new IllegalArgumentException("Menu item " + menuIds[i] + " not found");
+                }
+                if (!prices.isAvailable(slot)) {
+                    throw new IllegalArgumentException("Menu item " + menuIds[i] + " is not available");
+                }
+                long unit = prices.price(slot);
+                if (unit == PriceTable.UNPRICED) {
+                    throw new IllegalArgumentException("Menu item " + menuIds[i] + " has no price");
+                }
+                unitPrices[i] = unit;
+                subtotal = Math.addExact(subtotal, Math.multiplyExact(unit, quantity));
+            }
+            long discount = percent(subtotal, discountBps);
+            long net = subtotal - discount;
+            long serviceCharge = percent(net, serviceChargeBps);
+            long vat = percent(net + serviceCharge, vatBps);
+            long total = Math.addExact(net + serviceCharge, vat);
+            return new PriceQuote(menuIds, quantities, unitPrices, subtotal, discountBps, discount, serviceCharge,
+                    vat, total, prices.source().getVersion());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Order total is out of range");
+        }
+    }
+
+    // amount * bps / 10000, rounded half-up; amounts are never negative
+    static long percent(long amount, int bps) {
+        return (Math.multiplyExact(amount, (long) bps) + BPS / 2) / BPS;
+    }
+
+    // The table follows the menu catalog: rebuilt on the first quote after the snapshot changes
+    private PriceTable table() {
+        CatalogSnapshot<MenuItemRow> snapshot = menuCatalog.current();
+        PriceTable current = table;
+        if (current == null || current.source() != snapshot) {
+            current = new PriceTable(snapshot);
+            table = current;
+        }
+        return current;
+    }
+
+    private static int toInt(Object value, String field) {
+        long n = toLong(value, field);
+        if (n < Integer.MIN_VALUE || n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " is out of range");
+        }
+        return (int) n;
+    }
+
+    private static long toLong(Object value, String field) {
+        if (value instanceof Number n) {
+            if (n.doubleValue() != n.longValue()) {
+                throw new IllegalArgumentException(field + " must be a whole number");
+            }
+            return n.longValue();
+        }
+        try {
+            return Long.parseLong(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+}
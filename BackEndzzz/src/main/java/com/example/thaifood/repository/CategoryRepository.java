@@ -1,10 +1,33 @@
 package com.example.thaifood.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.thaifood.dto.CategoryDTO;
 import com.example.thaifood.model.Category;
+import java.util.List;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    // Query cache region; results are dropped whenever categories changes
+    String BY_NAME_REGION = "category_by_name";
+
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_NAME_REGION)})
     Category findByName(String name);
+
+    // Read paths: select straight into the DTO, so nothing is hydrated, snapshotted or dirty-checked.
+    // Methods declared here get no transaction by default, hence the explicit read-only ones
+    String DTO_SELECT = "SELECT new com.example.thaifood.dto.CategoryDTO(c.id, c.name, c.description, c.createdAt) "
+            + "FROM Category c";
+
+    @Query(DTO_SELECT)
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<CategoryDTO> findAllProjected();
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.example.thaifood.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.thaifood.model.MenuItem;
 //import com.example.thaifood.model.Category;
 import java.util.List;
 
 @Repository
 public interface MenuRepository extends JpaRepository<MenuItem, Long> {
+    // Query cache region; results are dropped whenever menu_item changes
+    String SEARCH_REGION = "menu_item_search";
+
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SEARCH_REGION)})
     List<MenuItem> findByItemNameContainingIgnoreCase(String itemName);
 }
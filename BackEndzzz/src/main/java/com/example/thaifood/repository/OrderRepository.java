@@ -1,12 +1,59 @@
 package com.example.thaifood.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.thaifood.dto.OrderDTO;
+import com.example.thaifood.dto.OrderItemDTO;
 import com.example.thaifood.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerNameContainingIgnoreCase(String customerName);
     List<Order> findByStatus(String status);
+
+    // Orders and their items in one query (left join), instead of one items query per order
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    List<Order> findAllWithItems();
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    String SUMMARY = "SELECT new com.example.thaifood.dto.OrderDTO(o.id, o.customerName, o.orderDate, o.totalAmount, o.status) "
+            + "FROM Order o ";
+    String NEWEST_FIRST = " ORDER BY o.orderDate DESC NULLS LAST, o.id DESC";
+
+    // Keyset pages of OrderDTO in the order GET /api/orders uses: (order_date, id) descending,
+    // orders without a date last; the Pageable only carries the page size
+    @Query(SUMMARY + NEWEST_FIRST)
+    List<OrderDTO> findSummaries(Pageable page);
+
+    @Query(SUMMARY + "WHERE o.orderDate < :date OR (o.orderDate = :date AND o.id < :id) OR o.orderDate IS NULL"
+            + NEWEST_FIRST)
+    List<OrderDTO> findSummariesAfter(@Param("date") LocalDateTime date, @Param("id") long id, Pageable page);
+
+    @Query(SUMMARY + "WHERE o.orderDate IS NULL AND o.id < :id" + NEWEST_FIRST)
+    List<OrderDTO> findUndatedSummariesAfter(@Param("id") long id, Pageable page);
+
+    // Items of one page of orders
+    @Query("SELECT new com.example.thaifood.dto.OrderItemDTO(o.id, i.id, i.itemName, i.price) "
+            + "FROM Order o JOIN o.items i WHERE o.id IN :orderIds ORDER BY o.id")
+    List<OrderItemDTO> findItemSummaries(@Param("orderIds") Collection<Long> orderIds);
+
+    // The join table only maps order_id and menu_id; quantity and the charged unit price are set afterwards
+    @Modifying
+    @Query(value = "UPDATE order_items SET quantity = :quantity, unit_price = :unitPrice "
+            + "WHERE order_id = :orderId AND menu_id = :menuId", nativeQuery = true)
+    int setItemPrice(@Param("orderId") long orderId, @Param("menuId") long menuId,
+                     @Param("quantity") int quantity, @Param("unitPrice") BigDecimal unitPrice);
 }
\ No newline at end of file
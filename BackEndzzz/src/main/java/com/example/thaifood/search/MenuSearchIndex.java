@@ -0,0 +1,140 @@
+package com.example.thaifood.search;
+
+import com.example.thaifood.dto.MenuItemDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory inverted index from name/description bigrams to menu items, replacing the
+ * {@code LIKE '%x%'} scan behind search-as-you-type. It is built from one version of the menu
+ * catalog snapshot and swapped in whole, so readers never block or see a half-built index,
+ * and it cannot drift from the catalog: a newer snapshot version simply triggers a rebuild.
+ * Results are ranked by how much of the query matches the name (weighted over the description),
+ * with a boost for a direct substring or prefix match.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final int IN_NAME = 1;
+    private static final int IN_DESCRIPTION = 2;
+
+    // Minimum share of the query's grams a document must contain to be returned
+    private static final double MIN_COVERAGE = 0.5;
+
+    // Immutable once published; version -1 means nothing has been indexed yet
+    private volatile Index index = new Index(-1, Map.of(), Map.of());
+
+    // Catalog snapshot version the index was built from
+    public long version() {
+        return index.version;
+    }
+
+    public int size() {
+        return index.entries.size();
+    }
+
+    public synchronized void rebuild(long version, Collection<MenuItemDTO> items) {
+        if (version == index.version) {
+            return;
+        }
+        Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        Map<Long, Entry> entries = new HashMap<>();
+        for (MenuItemDTO item : items) {
+            if (item.getIdItem() != null) {
+                add(item, postings, entries);
+            }
+        }
+        index = new Index(version, postings, entries);
+    }
+
+    public List<MenuItemDTO> search(String query, int limit) {
+        Index index = this.index;
+        String normalized = MenuTextAnalyzer.normalize(query).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = MenuTextAnalyzer.grams(normalized);
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+
+        // [0] = grams found in the name, [1] = grams found in the description
+        Map<Long, int[]> hits = new HashMap<>();
+        for (String gram : queryGrams) {
+            Map<Long, Integer> docs = index.postings.get(gram);
+            if (docs == null) {
+                continue;
+            }
+            docs.forEach((id, fields) -> {
+                int[] h = hits.computeIfAbsent(id, k -> new int[2]);
+                if ((fields & IN_NAME) != 0) {
+                    h[0]++;
+                }
+                if ((fields & IN_DESCRIPTION) != 0) {
+                    h[1]++;
+                }
+            });
+        }
+
+        String compactQuery = normalized.replace(" ", "");
+        List<Scored> ranked = new ArrayList<>();
+        hits.forEach((id, h) -> {
+            Entry entry = index.entries.get(id);
+            if (entry == null) {
+                return;
+            }
+            double nameCoverage = (double) h[0] / queryGrams.size();
+            double descCoverage = (double) h[1] / queryGrams.size();
+            if (Math.max(nameCoverage, descCoverage) < MIN_COVERAGE) {
+                return;
+            }
+            double score = 2 * nameCoverage + descCoverage;
+            if (entry.compactName().contains(compactQuery)) {
+                score += 2;
+                if (entry.compactName().startsWith(compactQuery)) {
+                    score += 1;
+                }
+            }
+            ranked.add(new Scored(entry.item(), score));
+        });
+
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(s -> s.item().getItemName(), Comparator.nullsLast(Comparator.naturalOrder())));
+        List<MenuItemDTO> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            results.add(ranked.get(i).item());
+        }
+        return results;
+    }
+
+    private static void add(MenuItemDTO item, Map<String, Map<Long, Integer>> postings, Map<Long, Entry> entries) {
+        String name = MenuTextAnalyzer.normalize(item.getItemName());
+        Map<String, Integer> grams = new HashMap<>();
+        for (String gram : MenuTextAnalyzer.grams(name)) {
+            grams.merge(gram, IN_NAME, (a, b) -> a | b);
+        }
+        for (String gram : MenuTextAnalyzer.grams(MenuTextAnalyzer.normalize(item.getDescription()))) {
+            grams.merge(gram, IN_DESCRIPTION, (a, b) -> a | b);
+        }
+
+        entries.put(item.getIdItem(), new Entry(item, name.replace(" ", "")));
+        grams.forEach((gram, fields) ->
+                postings.computeIfAbsent(gram, g -> new HashMap<>()).put(item.getIdItem(), fields));
+    }
+
+    private record Index(long version, Map<String, Map<Long, Integer>> postings, Map<Long, Entry> entries) {
+    }
+
+    private record Entry(MenuItemDTO item, String compactName) {
+    }
+
+    private record Scored(MenuItemDTO item, double score) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.thaifood.search;
+
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns menu text into search terms. Thai is written without spaces, so words are found
+ * with the JDK's dictionary-based Thai word breaker rather than by splitting on whitespace;
+ * each word is then cut into character bigrams so partial input still matches.
+ *
+ * <p>Latin text is accent-folded and common romanization variants are collapsed
+ * ("phad thai" and "pad tai" analyze the same) so transliterated queries find Thai dishes
+ * named in English.
+ */
+public final class MenuTextAnalyzer {
+
+    // Loading the Thai dictionary is costly; each call works on a cheap clone of this one
+    private static final BreakIterator WORD_BREAKER = BreakIterator.getWordInstance(new Locale("th"));
+
+    private MenuTextAnalyzer() {
+    }
+
+    // Lower-cased, NFC Thai; accent-free, romanization-folded Latin
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean lastWasLatin = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char ch = decomposed.charAt(i);
+            if (Character.getType(ch) == Character.NON_SPACING_MARK && lastWasLatin) {
+                // é -> e, but keep Thai vowel and tone marks, which are also non-spacing
+                continue;
+            }
+            lastWasLatin = isLatin(ch);
+            sb.append(ch);
+        }
+        String lower = Normalizer.normalize(sb, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return foldRomanization(lower);
+    }
+
+    public static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        BreakIterator it = (BreakIterator) WORD_BREAKER.clone();
+        it.setText(normalized);
+        int start = it.first();
+        for (int end = it.next(); end != BreakIterator.DONE; start = end, end = it.next()) {
+            String word = normalized.substring(start, end);
+            if (word.codePoints().anyMatch(Character::isLetterOrDigit)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Distinct bigrams of every word; a one-character word is kept whole
+    public static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(normalized)) {
+            if (word.length() < 2) {
+                grams.add(word);
+                continue;
+            }
+            for (int i = 0; i + 2 <= word.length(); i++) {
+                grams.add(word.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+    private static boolean isLatin(char ch) {
+        return Character.UnicodeScript.of(ch) == Character.UnicodeScript.LATIN;
+    }
+
+    // Romanizations of the same Thai sound differ mostly by aspiration "h" and doubled vowels
+    private static String foldRomanization(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            char prev = sb.length() > 0 ? sb.charAt(sb.length() - 1) : 0;
+            if (ch == 'h' && (prev == 'p' || prev == 't' || prev == 'k')) {
+                continue;
+            }
+            if (ch == prev && ch >= 'a' && ch <= 'z') {
+                continue;
+            }
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+}
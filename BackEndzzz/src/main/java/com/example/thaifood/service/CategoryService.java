@@ -1,51 +1,69 @@
 package com.example.thaifood.service;
 
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.cache.SingleFlight;
 import com.example.thaifood.model.Category;
 import com.example.thaifood.dto.CategoryDTO;
 import com.example.thaifood.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
     private final CategoryRepository categoryRepository;
+    private final JsonResponseCache jsonCache;
+    // request พร้อมกันที่ขอข้อมูลเดียวกันใช้ query เดียวกัน
+    private final SingleFlight<String, List<CategoryDTO>> listLoads = new SingleFlight<>("category.all");
+    private final SingleFlight<Long, Optional<CategoryDTO>> byIdLoads = new SingleFlight<>("category.byId");
+    // เปิด transaction เฉพาะคนที่ query จริง คนที่รอผลไม่ถือ connection
+    private final TransactionTemplate readOnlyTx;
+    // log ทุก request ไม่ไหว: info หนึ่งบรรทัดต่อช่วงเวลา ที่เหลือเป็น debug
+    private final LogSampler byIdLog;
 
     // Constructor Injection
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, JsonResponseCache jsonCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${thaifood.logging.sample-interval-ms:10000}") long sampleIntervalMillis) {
         this.categoryRepository = categoryRepository;
+        this.jsonCache = jsonCache;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.byIdLog = new LogSampler(sampleIntervalMillis);
+    }
+
+    public Map<String, Object> getSingleFlightStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("list", listLoads.stats());
+        stats.put("byId", byIdLoads.stats());
+        return stats;
     }
 
     // ✅ ดึงข้อมูลทั้งหมด
     public List<CategoryDTO> getAllCategories() {
-        logger.info("🔍 Fetching all categories from database...");
+        return listLoads.get("all", () -> readOnlyTx.execute(status -> loadAllCategories()));
+    }
+
+    private List<CategoryDTO> loadAllCategories() {
+        logger.debug("🔍 Fetching all categories from database...");
         
         try {
-            List<Category> entities = categoryRepository.findAll();
-            logger.info("📊 Found {} category entities from database", entities.size());
+            // select ตรงเข้า DTO ไม่สร้าง entity (read-only, ไม่ flush)
+            List<CategoryDTO> dtos = categoryRepository.findAllProjected();
+            logger.info("📊 Found {} categories from database", dtos.size());
             
-            // Debug: log each entity
-            for (int i = 0; i < entities.size(); i++) {
-                Category entity = entities.get(i);
-                logger.info("Entity {}: id={}, name={}, description={}, createdAt={}", 
-                    i+1, entity.getId(), entity.getName(), entity.getDescription(), entity.getCreatedAt());
-            }
-            
-            List<CategoryDTO> dtos = entities.stream()
-                    .map(entity -> {
-                        CategoryDTO dto = new CategoryDTO(entity);
-                        logger.debug("Converted entity id={} to DTO id={}", entity.getId(), dto.getId());
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-            
-            logger.info("✅ Successfully converted {} entities to DTOs", dtos.size());
-            return dtos;
+            // shared by every coalesced caller
+            return Collections.unmodifiableList(dtos);
             
         } catch (Exception e) {
             logger.error("❌ Error in getAllCategories: {}", e.getMessage(), e);
@@ -55,12 +73,20 @@ public class CategoryService {
 
     // ✅ ดึงข้อมูลตาม id
     public Optional<CategoryDTO> getCategoryById(Long id) {
-        logger.info("🔍 Fetching category by id: {}", id);
-        return categoryRepository.findById(id)
-                .map(entity -> {
-                    logger.info("✅ Found category: {}", entity.getName());
-                    return new CategoryDTO(entity);
-                });
+        return byIdLoads.get(id, () -> readOnlyTx.execute(status -> {
+            long lookups = byIdLog.sample();
+            if (lookups > 0) {
+                logger.info("🔍 Fetching category by id: {} ({} lookups since the last sampled line)", id, lookups);
+            } else {
+                logger.debug("🔍 Fetching category by id: {}", id);
+            }
+            // findById อ่านจาก second-level cache ก่อน ไม่ต้องไป database ทุกครั้ง
+            return categoryRepository.findById(id)
+                    .map(entity -> {
+                        logger.debug("✅ Found category: {}", entity.getName());
+                        return new CategoryDTO(entity);
+                    });
+        }));
     }
 
     // ✅ สร้างข้อมูลใหม่
@@ -69,6 +95,9 @@ public class CategoryService {
         Category category = categoryDTO.toEntity();
         Category savedCategory = categoryRepository.save(category);
         logger.info("✅ Successfully created category with id: {}", savedCategory.getId());
+        jsonCache.invalidate("categories");
+        listLoads.invalidate();
+        byIdLoads.invalidate();
         return new CategoryDTO(savedCategory);
     }
 
@@ -82,6 +111,9 @@ public class CategoryService {
                 // createdAt ไม่ควรแก้ → ให้มันเป็นค่าตอนแรกที่ insert
                 Category updatedCategory = categoryRepository.save(category);
                 logger.info("✅ Successfully updated category id: {}", updatedCategory.getId());
+                jsonCache.invalidate("categories");
+                listLoads.invalidate();
+                byIdLoads.invalidate();
                 return new CategoryDTO(updatedCategory);
             });
     }
@@ -93,6 +125,9 @@ public class CategoryService {
             .map(category -> {
                 categoryRepository.delete(category);
                 logger.info("✅ Successfully deleted category id: {}", id);
+                jsonCache.invalidate("categories");
+                listLoads.invalidate();
+                byIdLoads.invalidate();
                 return true;
             })
             .orElse(false);
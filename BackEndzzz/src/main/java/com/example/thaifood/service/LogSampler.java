@@ -0,0 +1,33 @@
+package com.example.thaifood.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one call through per interval for a log line that would otherwise be written on every
+ * request, and reports how many calls the sampled line stands for. Calls in between only bump a
+ * counter, so a line that is not written costs about as much as a disabled logger check.
+ */
+class LogSampler {
+
+    private final long intervalNanos;
+    private final AtomicLong nextDue;
+    private final LongAdder calls = new LongAdder();
+
+    LogSampler(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nextDue = new AtomicLong(System.nanoTime());
+    }
+
+    // Calls since the previous sampled one (this one included) when this call should log, otherwise 0
+    long sample() {
+        calls.increment();
+        long now = System.nanoTime();
+        long due = nextDue.get();
+        if (now - due < 0 || !nextDue.compareAndSet(due, now + intervalNanos)) {
+            return 0;
+        }
+        return calls.sumThenReset();
+    }
+}
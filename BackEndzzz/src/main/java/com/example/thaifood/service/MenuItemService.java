@@ -1,15 +1,27 @@
 package com.example.thaifood.service;
 
+import com.example.thaifood.cache.CatalogSnapshot;
+import com.example.thaifood.cache.JsonResponseCache;
+import com.example.thaifood.cache.MenuCatalog;
+import com.example.thaifood.cache.SingleFlight;
+import com.example.thaifood.jdbc.row.MenuItemRow;
 import com.example.thaifood.model.MenuItem;
 import com.example.thaifood.dto.MenuItemDTO;
 import com.example.thaifood.repository.MenuRepository;
+import com.example.thaifood.search.MenuSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class MenuItemService {
@@ -17,48 +29,102 @@ public class MenuItemService {
     private static final Logger logger = LoggerFactory.getLogger(MenuItemService.class);
     private final MenuRepository menuItemRepository;
 
+    // snapshot เดียวกับที่ GET /api/menus และการคิดราคาใช้ สร้างใหม่ทุกครั้งที่มีการเขียน
+    private final MenuCatalog menuCatalog;
+    private final JsonResponseCache jsonCache;
+    private final MenuSearchIndex searchIndex;
+    // request พร้อมกันที่ขอ id เดียวกันใช้ query เดียวกัน
+    private final SingleFlight<Long, Optional<MenuItemDTO>> byIdLoads = new SingleFlight<>("menu_item.byId");
+    // เปิด transaction เฉพาะคนที่ query จริง คนที่รอผลไม่ถือ connection
+    private final TransactionTemplate readOnlyTx;
+    // log ทุก request ไม่ไหว: info หนึ่งบรรทัดต่อช่วงเวลา ที่เหลือเป็น debug
+    private final LogSampler byIdLog;
+
     // ✅ Constructor Injection
-    public MenuItemService(MenuRepository menuItemRepository) {
+    public MenuItemService(MenuRepository menuItemRepository, MenuCatalog menuCatalog, JsonResponseCache jsonCache,
+                           MenuSearchIndex searchIndex, PlatformTransactionManager transactionManager,
+                           @Value("${thaifood.logging.sample-interval-ms:10000}") long sampleIntervalMillis) {
         this.menuItemRepository = menuItemRepository;
+        this.menuCatalog = menuCatalog;
+        this.jsonCache = jsonCache;
+        this.searchIndex = searchIndex;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.byIdLog = new LogSampler(sampleIntervalMillis);
     }
 
-    // ✅ ดึงข้อมูลทั้งหมด
+    // ✅ ดึงข้อมูลทั้งหมด (อ่านจาก snapshot ใน memory)
     public List<MenuItemDTO> getAllMenuItems() {
-        logger.info("🔍 Fetching all menu items from database...");
+        return toDtos(menuCatalog.current().getItems());
+    }
+
+    private static List<MenuItemDTO> toDtos(List<MenuItemRow> rows) {
+        List<MenuItemDTO> dtos = new ArrayList<>(rows.size());
+        for (MenuItemRow row : rows) {
+            dtos.add(new MenuItemDTO(row));
+        }
+        return dtos;
+    }
 
+    public Map<String, Object> getSingleFlightStats() {
+        return byIdLoads.stats();
+    }
+
+    // โหลด snapshot ตอน start เพื่อไม่ให้ request แรกต้องรอ
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCatalog() {
         try {
-            List<MenuItem> entities = menuItemRepository.findAll();
-            logger.info("📊 Found {} menu items from database", entities.size());
-
-            // Debug log
-            for (int i = 0; i < entities.size(); i++) {
-                MenuItem entity = entities.get(i);
-                logger.info("Entity {}: id={}, name={}, price={}, available={}",
-                        i + 1, entity.getId(), entity.getItemName(),
-                        entity.getPrice(), entity.getIsAvailable());
-            }
+            syncSearchIndex();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Menu item catalog warm-up failed, it will load on first request: {}", e.getMessage());
+        }
+    }
 
-            List<MenuItemDTO> dtos = entities.stream()
-                    .map(MenuItemDTO::new)
-                    .collect(Collectors.toList());
+    /**
+     * Called after every committed write to menu_items, whichever path made it (this service or the
+     * raw-JDBC MenuController): rebuilds the shared snapshot and drops everything derived from the old one.
+     */
+    public void menuItemsChanged() {
+        menuCatalog.rebuildAfterWrite();
+        byIdLoads.invalidate();
+        jsonCache.invalidate("menus");
+        try {
+            syncSearchIndex();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Search index refresh failed, it will rebuild on next search: {}", e.getMessage());
+        }
+    }
 
-            logger.info("✅ Successfully converted {} entities to DTOs", dtos.size());
-            return dtos;
+    // 🔎 ค้นหาจาก index ใน memory แทน LIKE '%x%' (รองรับภาษาไทยที่ไม่มีการเว้นวรรค)
+    public List<MenuItemDTO> searchMenuItems(String query, int limit) {
+        syncSearchIndex();
+        return searchIndex.search(query, limit);
+    }
 
-        } catch (Exception e) {
-            logger.error("❌ Error in getAllMenuItems: {}", e.getMessage(), e);
-            throw e;
+    // index สร้างจาก snapshot เดียวกับ GET /api/menus: version ไม่ตรงก็สร้างใหม่ จึงไม่มีทางเพี้ยนจากกัน
+    private void syncSearchIndex() {
+        CatalogSnapshot<MenuItemRow> snapshot = menuCatalog.current();
+        if (searchIndex.version() != snapshot.getVersion()) {
+            searchIndex.rebuild(snapshot.getVersion(), toDtos(snapshot.getItems()));
         }
     }
 
     // ✅ ดึงข้อมูลตาม id
     public Optional<MenuItemDTO> getMenuItemById(Long id) {
-        logger.info("🔍 Fetching menu item by id: {}", id);
-        return menuItemRepository.findById(id)
-                .map(entity -> {
-                    logger.info("✅ Found menu item: {}", entity.getItemName());
-                    return new MenuItemDTO(entity);
-                });
+        return byIdLoads.get(id, () -> readOnlyTx.execute(status -> {
+            long lookups = byIdLog.sample();
+            if (lookups > 0) {
+                logger.info("🔍 Fetching menu item by id: {} ({} lookups since the last sampled line)", id, lookups);
+            } else {
+                logger.debug("🔍 Fetching menu item by id: {}", id);
+            }
+            // findById อ่านจาก second-level cache ก่อน ไม่ต้องไป database ทุกครั้ง
+            return menuItemRepository.findById(id)
+                    .map(entity -> {
+                        logger.debug("✅ Found menu item: {}", entity.getItemName());
+                        return new MenuItemDTO(entity);
+                    });
+        }));
     }
 
     // ✅ สร้างข้อมูลใหม่
@@ -67,6 +133,7 @@ public class MenuItemService {
         MenuItem menuItem = menuItemDTO.toEntity();
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
         logger.info("✅ Successfully created menu item with id: {}", savedMenuItem.getId());
+        menuItemsChanged();
         return new MenuItemDTO(savedMenuItem);
     }
 
@@ -83,6 +150,7 @@ public class MenuItemService {
                     // createdAt ไม่แก้ → ให้มันคงไว้
                     MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
                     logger.info("✅ Successfully updated menu item id: {}", updatedMenuItem.getId());
+                    menuItemsChanged();
                     return new MenuItemDTO(updatedMenuItem);
                 });
     }
@@ -94,6 +162,7 @@ public class MenuItemService {
                 .map(menuItem -> {
                     menuItemRepository.delete(menuItem);
                     logger.info("✅ Successfully deleted menu item id: {}", id);
+                    menuItemsChanged();
                     return true;
                 })
                 .orElse(false);
@@ -0,0 +1,252 @@
+package com.example.thaifood.service;
+
+import com.example.thaifood.jdbc.row.OrderRow;
+import com.example.thaifood.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live kitchen board: orders partitioned by status and kept current from the write paths,
+ * so board queries never hit MySQL. Each partition is a lock-free skip list ordered by
+ * order id (oldest first). Completed and cancelled partitions keep only the most recent
+ * orders so the board does not grow with the orders table.
+ */
+@Component
+public class OrderBoard {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBoard.class);
+
+    public record Entry(long orderId, OrderStatus status, String customer, Double amount,
+                        LocalDateTime orderDate, long enteredStateAt) {
+    }
+
+    // A committed status write; returns the order's status as stored afterwards, or null if no row changed
+    @FunctionalInterface
+    public interface StatusWrite<E extends Exception> {
+        OrderStatus write() throws E;
+    }
+
+    private final DataSource dataSource;
+    private final int terminalRetention;
+
+    private final Map<OrderStatus, ConcurrentSkipListMap<Long, Entry>> partitions = new EnumMap<>(OrderStatus.class);
+    private final ConcurrentMap<Long, Entry> byId = new ConcurrentHashMap<>();
+    // Status writes to one order run one at a time, so they reach the board in commit order
+    private final ReentrantLock[] statusLocks = new ReentrantLock[64];
+    private volatile boolean loaded;
+
+    public OrderBoard(DataSource dataSource,
+                      @Value("${thaifood.board.terminal-retention:500}") int terminalRetention) {
+        this.dataSource = dataSource;
+        this.terminalRetention = terminalRetention;
+        for (OrderStatus status : OrderStatus.values()) {
+            partitions.put(status, new ConcurrentSkipListMap<>());
+        }
+        for (int i = 0; i < statusLocks.length; i++) {
+            statusLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public void onCreated(long orderId, String status, String customer, Double amount, LocalDateTime orderDate) {
+        OrderStatus parsed = OrderStatus.parse(status);
+        if (parsed == null) {
+            logger.debug("Order {} has unrecognised status '{}', not placed on the board", orderId, status);
+            return;
+        }
+        place(new Entry(orderId, parsed, customer, amount, orderDate, System.currentTimeMillis()));
+    }
+
+    // Values as written by an INSERT into orders, in column order
+    public void onInserted(long orderId, List<String> cols, List<Object> vals) {
+        Object status = null, customer = null, amount = null, orderDate = null;
+        for (int i = 0; i < cols.size(); i++) {
+            switch (cols.get(i)) {
+                case "status" -> status = vals.get(i);
+                case "customer_id" -> customer = vals.get(i);
+                case "amount" -> amount = vals.get(i);
+                case "order_date" -> orderDate = vals.get(i);
+                default -> { }
+            }
+        }
+        onCreated(orderId,
+                status == null ? null : status.toString(),
+                customer == null ? null : customer.toString(),
+                amount instanceof Number ? ((Number) amount).doubleValue() : null,
+                orderDate instanceof Timestamp ? ((Timestamp) orderDate).toLocalDateTime() : null);
+    }
+
+    /**
+     * Runs a status write and moves the order to the status it reports, holding the order's lock
+     * across both. Without it, two writes to one order could commit in one order and reach the
+     * board in the other, leaving the board on the older status.
+     */
+    public <E extends Exception> OrderStatus changeStatus(long orderId, StatusWrite<E> write) throws E {
+        ReentrantLock lock = statusLocks[Long.hashCode(orderId) & (statusLocks.length - 1)];
+        lock.lock();
+        try {
+            OrderStatus status = write.write();
+            if (status != null) {
+                onStatusChanged(orderId, status);
+            }
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Only moves orders the board holds: before the startup load, the load reads the stored status;
+    // a trimmed terminal order has no customer or amount here to carry over
+    private void onStatusChanged(long orderId, OrderStatus status) {
+        Entry moved = byId.computeIfPresent(orderId, (id, old) -> {
+            if (old.status() == status) {
+                return old;
+            }
+            partitions.get(old.status()).remove(id, old);
+            Entry entry = new Entry(id, status, old.customer(), old.amount(), old.orderDate(), System.currentTimeMillis());
+            partitions.get(status).put(id, entry);
+            return entry;
+        });
+        if (moved != null) {
+            trim(status);
+        }
+    }
+
+    public void onDeleted(long orderId) {
+        byId.computeIfPresent(orderId, (id, old) -> {
+            partitions.get(old.status()).remove(id, old);
+            return null;
+        });
+    }
+
+    public List<Entry> get(OrderStatus status) {
+        return new ArrayList<>(partitions.get(status).values());
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        for (OrderStatus status : OrderStatus.values()) {
+            long oldest = 0;
+            long total = 0;
+            int depth = 0;
+            for (Entry entry : partitions.get(status).values()) {
+                long inState = now - entry.enteredStateAt();
+                oldest = Math.max(oldest, inState);
+                total += inState;
+                depth++;
+            }
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("depth", depth);
+            s.put("maxTimeInStateMillis", oldest);
+            s.put("avgTimeInStateMillis", depth == 0 ? 0 : total / depth);
+            stats.put(status.name(), s);
+        }
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Retries the startup load until it succeeds; once loaded the board is maintained by the write paths
+    @Scheduled(fixedDelayString = "${thaifood.board.retry-interval-ms:30000}")
+    public void retryLoad() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        // Active orders in full, terminal ones only as far back as the retention allows
+        String active = "SELECT * FROM orders WHERE UPPER(TRIM(status)) IN ('PENDING', 'PROCESSING')";
+        String terminal = "SELECT * FROM orders WHERE UPPER(TRIM(status)) IN ('COMPLETED', 'CANCELLED') ORDER BY id DESC LIMIT ?";
+        try (Connection conn = dataSource.getConnection()) {
+            int count = load(conn, active, null) + load(conn, terminal, terminalRetention * 2);
+            loaded = true;
+            logger.info("Order board loaded {} orders", count);
+        } catch (SQLException e) {
+            logger.warn("Order board load failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int load(Connection conn, String sql, Integer limit) throws SQLException {
+        int count = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (limit != null) {
+                pstmt.setInt(1, limit);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                for (OrderRow row : OrderRow.MAPPER.mapAll(sql, rs)) {
+                    OrderStatus status = OrderStatus.parse(row.status());
+                    if (status == null) {
+                        continue;
+                    }
+                    String customer = row.customerName() != null ? row.customerName()
+                            : row.isNull(OrderRow.CUSTOMER_ID) ? null : String.valueOf(row.customerId());
+                    // Time of the last transition is not stored; the order date is the best lower bound
+                    long since = row.orderDate() != null
+                            ? row.orderDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                            : System.currentTimeMillis();
+                    Double amount = !row.isNull(OrderRow.AMOUNT) ? Double.valueOf(row.amount().doubleValue())
+                            : !row.isNull(OrderRow.TOTAL_AMOUNT) ? Double.valueOf(row.totalAmount().doubleValue()) : null;
+                    // A live update that raced with the load is newer than the row we read
+                    if (!byId.containsKey(row.id())) {
+                        place(new Entry(row.id(), status, customer, amount, row.orderDate(), since));
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void place(Entry entry) {
+        byId.compute(entry.orderId(), (id, old) -> {
+            if (old != null) {
+                partitions.get(old.status()).remove(id, old);
+            }
+            partitions.get(entry.status()).put(id, entry);
+            return entry;
+        });
+        trim(entry.status());
+    }
+
+    private void trim(OrderStatus status) {
+        if (!status.isTerminal()) {
+            return;
+        }
+        ConcurrentSkipListMap<Long, Entry> partition = partitions.get(status);
+        while (partition.size() > terminalRetention) {
+            Map.Entry<Long, Entry> oldest = partition.pollFirstEntry();
+            if (oldest == null) {
+                break;
+            }
+            byId.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+}
@@ -0,0 +1,643 @@
+package com.example.thaifood.service;
+
+import com.example.thaifood.jdbc.Bulkheads;
+import com.example.thaifood.jdbc.OrderInserts;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.pricing.PriceQuote;
+import com.example.thaifood.pricing.PricingEngine;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind order intake ({@code thaifood.orders.intake.enabled=true}). Orders are validated,
+ * priced, put on a bounded queue and acknowledged with a provisional id; a single writer thread
+ * drains the queue and commits each group with one multi-row INSERT plus its order_items, so a burst
+ * of orders costs one connection and one transaction per group instead of one per order. The quote
+ * is taken at acceptance and journaled with the order, so a replay charges what was acknowledged.
+ * <p>
+ * Every acknowledged order ends as COMMITTED or FAILED: a row the database rejects fails on its own
+ * (the rest of its group is retried row by row), an unexpected writer error fails the group, and
+ * orders still queued when shutdown gives up are failed rather than dropped when there is no journal.
+ * <p>
+ * With {@code thaifood.orders.intake.journal} set, every order is appended (and forced) to a local
+ * file before it is acknowledged, commits are recorded after the database commit, and orders without
+ * a commit record are replayed on the next start. Each row carries its provisional id in
+ * {@code orders.intake_id}; with a unique index on that column, a replayed order that was already
+ * committed (a crash between the database commit and the commit record) is recognised and not
+ * inserted twice.
+ */
+@Component
+public class OrderIntake implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntake.class);
+
+    // Provisional id written with each row; unique, so a replay cannot insert the same order twice
+    private static final String INTAKE_ID = "intake_id";
+
+    public enum State { QUEUED, COMMITTED, FAILED }
+
+    public record Receipt(String provisionalId, State state, Long orderId, String error, long acceptedAt) {
+    }
+
+    // quote is null only for orders journaled before orders carried one; those are written as accepted
+    private record Pending(String provisionalId, Map<String, Object> order, PriceQuote quote, long acceptedAt) {
+    }
+
+    private final DataSource dataSource;
+    private final SchemaRegistry schemaRegistry;
+    private final OrderBoard orderBoard;
+    private final ObjectMapper objectMapper;
+    private final Bulkheads bulkheads;
+    private final PricingEngine pricingEngine;
+
+    private final boolean enabled;
+    private final int maxGroupSize;
+    private final long receiptTtlMillis;
+    private final long shutdownTimeoutMillis;
+    private final Path journalPath;
+
+    private final BlockingQueue<Pending> queue;
+    private final ConcurrentMap<String, Receipt> receipts = new ConcurrentHashMap<>();
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private FileChannel journal;
+    private int journalUncommitted;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIntake(DataSource dataSource,
+                       SchemaRegistry schemaRegistry,
+                       OrderBoard orderBoard,
+                       ObjectMapper objectMapper,
+                       Bulkheads bulkheads,
+                       PricingEngine pricingEngine,
+                       @Value("${thaifood.orders.intake.enabled:false}") boolean enabled,
+                       @Value("${thaifood.orders.intake.queue-capacity:10000}") int queueCapacity,
+                       @Value("${thaifood.orders.intake.max-group-size:200}") int maxGroupSize,
+                       @Value("${thaifood.orders.intake.receipt-ttl-ms:600000}") long receiptTtlMillis,
+                       @Value("${thaifood.orders.intake.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis,
+                       @Value("${thaifood.orders.intake.journal:}") String journal) {
+        this.dataSource = dataSource;
+        this.schemaRegistry = schemaRegistry;
+        this.orderBoard = orderBoard;
+        this.objectMapper = objectMapper;
+        this.bulkheads = bulkheads;
+        this.pricingEngine = pricingEngine;
+        this.enabled = enabled;
+        this.maxGroupSize = maxGroupSize;
+        this.receiptTtlMillis = receiptTtlMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.journalPath = journal.isBlank() ? null : Path.of(journal);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates and queues an order. Returns null when the queue is full; throws
+     * IllegalArgumentException for an invalid order and IllegalStateException when intake is off.
+     */
+    public Receipt submit(Map<String, Object> orderRequest) throws IOException {
+        if (!running) {
+            throw new IllegalStateException(enabled ? "Order intake is shutting down" : "Order intake is disabled");
+        }
+        Map<String, Object> order = validate(orderRequest);
+        PriceQuote quote = pricingEngine.quote(order);
+        order.put("amount", quote.totalBaht());
+        String provisionalId = UUID.randomUUID().toString();
+        order.put(INTAKE_ID, provisionalId);
+        Pending pending = new Pending(provisionalId, order, quote, System.currentTimeMillis());
+        Receipt receipt = new Receipt(pending.provisionalId(), State.QUEUED, null, null, pending.acceptedAt());
+
+        journalLock.lock();
+        try {
+            // The journal lock keeps journal order and queue order the same
+            if (queue.remainingCapacity() == 0) {
+                rejected.increment();
+                return null;
+            }
+            if (journal != null) {
+                appendJournal(Map.of("op", "order", "pid", pending.provisionalId(), "order", order, "quote", quote));
+                journalUncommitted++;
+            }
+            // Registered before queuing so the writer's COMMITTED receipt cannot be overwritten
+            receipts.put(pending.provisionalId(), receipt);
+            queue.add(pending);
+        } finally {
+            journalLock.unlock();
+        }
+        accepted.increment();
+        return receipt;
+    }
+
+    public Receipt lookup(String provisionalId) {
+        return receipts.get(provisionalId);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running);
+        stats.put("queued", queue.size());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("committed", committed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("groups", groups.sum());
+        long g = groups.sum();
+        stats.put("avgGroupSize", g == 0 ? 0.0 : (double) (committed.sum() + failed.sum()) / g);
+        stats.put("journal", journalPath == null ? null : journalPath.toString());
+        return stats;
+    }
+
+    // Resolves defaults now so a replayed order keeps its original order date
+    private Map<String, Object> validate(Map<String, Object> orderRequest) {
+        Map<String, Object> order = new LinkedHashMap<>(orderRequest);
+        Object customer = order.get("customer_id");
+        if (customer != null && !(customer instanceof Number)) {
+            throw new IllegalArgumentException("customer_id must be a number");
+        }
+        Object orderDate = order.get("order_date");
+        if (orderDate == null) {
+            order.put("order_date", Timestamp.valueOf(LocalDateTime.now()).toString());
+        } else {
+            try {
+                Timestamp.valueOf(orderDate.toString());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("order_date must be yyyy-mm-dd hh:mm:ss");
+            }
+        }
+        order.putIfAbsent("status", "pending");
+        return order;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (journalPath != null) {
+                openJournal();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open order journal " + journalPath, e);
+        }
+        try {
+            if (journalPath != null && !schemaRegistry.get("orders").hasColumn(INTAKE_ID)) {
+                logger.warn("orders has no {} column (see db/mysql/orders-intake-id.sql): "
+                        + "a journal replay after a crash may insert committed orders again", INTAKE_ID);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not check orders for the {} column: {}", INTAKE_ID, e.getMessage());
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Order intake started (group size {}, queue capacity {}, journal {})",
+                maxGroupSize, queue.remainingCapacity() + queue.size(), journalPath);
+    }
+
+    // Stops accepting, then waits for the writer to flush what is already queued
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            if (journal != null) {
+                logger.warn("Order intake stopped with {} orders unflushed; they will be replayed from the journal",
+                        queue.size());
+            } else {
+                // No journal to replay from: report each one as failed instead of losing it silently
+                List<Pending> unflushed = new ArrayList<>();
+                queue.drainTo(unflushed);
+                logger.error("Order intake stopped with {} acknowledged orders unwritten", unflushed.size());
+                for (Pending pending : unflushed) {
+                    markFailed(pending, "Not written before shutdown");
+                }
+            }
+        }
+        closeJournal();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server (DEFAULT_PHASE - 2048) has stopped taking requests and after graceful
+    // shutdown (DEFAULT_PHASE - 1024) has let in-flight ones finish, but before the DataSource closes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<Pending> group = new ArrayList<>(maxGroupSize);
+        long lastExpiry = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                if (System.currentTimeMillis() - lastExpiry > 1000) {
+                    expireReceipts();
+                    lastExpiry = System.currentTimeMillis();
+                }
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxGroupSize - 1);
+                groups.increment();
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Never leave an acknowledged order without an outcome
+                logger.error("Order intake writer error", e);
+                for (Pending pending : group) {
+                    Receipt receipt = receipts.get(pending.provisionalId());
+                    if (receipt != null && receipt.state() == State.QUEUED) {
+                        markFailed(pending, "Order intake writer error: " + e.getMessage());
+                    }
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        while (true) {
+            try {
+                // Group commits draw from the same connection share as synchronous order writes
+                List<Long> ids = bulkheads.call(Bulkheads.ORDERS, () -> insert(group));
+                for (int i = 0; i < group.size(); i++) {
+                    markCommitted(group.get(i), ids.get(i));
+                }
+                return;
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    if (running) {
+                        logger.warn("Group insert failed, will retry: {}", e.getMessage());
+                        sleepQuietly(1000);
+                        continue;
+                    }
+                    if (journal != null) {
+                        // Shutting down: leave the group in the journal for the next start
+                        logger.warn("Group of {} orders not written before shutdown: {}", group.size(), e.getMessage());
+                    } else {
+                        for (Pending pending : group) {
+                            markFailed(pending, "Not written before shutdown: " + e.getMessage());
+                        }
+                    }
+                    return;
+                }
+                if (group.size() > 1) {
+                    // One bad row fails the whole statement; retry row by row to isolate it
+                    logger.warn("Group insert of {} orders failed, retrying individually: {}", group.size(), e.getMessage());
+                    for (Pending pending : group) {
+                        commit(List.of(pending));
+                    }
+                    return;
+                }
+                Pending pending = group.get(0);
+                Long existing = isDuplicate(e) ? findByIntakeId(pending.provisionalId()) : null;
+                if (existing != null) {
+                    // Replayed from the journal but committed before the crash
+                    logger.info("Order {} was already written as order {}, not inserting it again",
+                            pending.provisionalId(), existing);
+                    markCommitted(pending, existing);
+                    return;
+                }
+                markFailed(pending, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private List<Long> insert(List<Pending> group) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            TableSchema schema = schemaRegistry.get(conn, "orders");
+            List<String> cols = new ArrayList<>(OrderInserts.columns(schema));
+            if (schema.hasColumn(INTAKE_ID)) {
+                cols.add(INTAKE_ID);
+            }
+            List<String> itemCols = OrderInserts.itemColumns(schemaRegistry.get(conn, "order_items"));
+            if (itemCols.isEmpty()) {
+                throw new SQLException("Table 'order_items' needs order_id and menu_id columns");
+            }
+            List<List<Object>> rows = new ArrayList<>(group.size());
+            for (Pending pending : group) {
+                rows.add(OrderInserts.values(cols, pending.order()));
+            }
+
+            List<Long> ids = new ArrayList<>(group.size());
+            boolean autoCommit = conn.getAutoCommit();
+            // the orders and their items commit together
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(OrderInserts.sql(cols, rows.size()),
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    int p = 1;
+                    for (List<Object> vals : rows) {
+                        for (Object val : vals) {
+                            pstmt.setObject(p++, val);
+                        }
+                    }
+                    pstmt.executeUpdate();
+                    // A single multi-row INSERT gets consecutive ids, returned in row order
+                    try (ResultSet gk = pstmt.getGeneratedKeys()) {
+                        while (gk.next()) {
+                            ids.add(gk.getLong(1));
+                        }
+                    }
+                }
+                if (ids.size() != group.size()) {
+                    throw new SQLException("Expected " + group.size() + " generated keys, got " + ids.size());
+                }
+                try (PreparedStatement items = conn.prepareStatement(OrderInserts.itemSql(itemCols))) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        PriceQuote quote = group.get(i).quote();
+                        if (quote != null) {
+                            OrderInserts.addItems(items, itemCols, ids.get(i), quote);
+                        }
+                    }
+                    items.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                orderBoard.onInserted(ids.get(i), cols, rows.get(i));
+            }
+            return ids;
+        }
+    }
+
+    private void markCommitted(Pending pending, long orderId) {
+        committed.increment();
+        receipts.put(pending.provisionalId(),
+                new Receipt(pending.provisionalId(), State.COMMITTED, orderId, null, pending.acceptedAt()));
+        journalDone(Map.of("op", "commit", "pid", pending.provisionalId(), "id", orderId));
+    }
+
+    private void markFailed(Pending pending, String error) {
+        failed.increment();
+        logger.error("Order {} could not be written: {}", pending.provisionalId(), error);
+        receipts.put(pending.provisionalId(),
+                new Receipt(pending.provisionalId(), State.FAILED, null, error, pending.acceptedAt()));
+        journalDone(Map.of("op", "failed", "pid", pending.provisionalId()));
+    }
+
+    // Order id already stored under this provisional id, or null (also when orders has no intake_id column)
+    private Long findByIntakeId(String provisionalId) {
+        try (Connection conn = dataSource.getConnection()) {
+            if (!schemaRegistry.get(conn, "orders").hasColumn(INTAKE_ID)) {
+                return null;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM orders WHERE " + INTAKE_ID + " = ?")) {
+                pstmt.setString(1, provisionalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not look up order {} by intake id: {}", provisionalId, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isTransient(Exception e) {
+        // SQLState class 08 is a connection failure; a full bulkhead is a transient SQLException too
+        return e instanceof java.sql.SQLTransientException
+                || e instanceof java.sql.SQLRecoverableException
+                || (e instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08"));
+    }
+
+    // SQLState class 23 is an integrity constraint violation, e.g. the unique intake_id
+    private boolean isDuplicate(Exception e) {
+        return e instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23");
+    }
+
+    private void expireReceipts() {
+        long cutoff = System.currentTimeMillis() - receiptTtlMillis;
+        receipts.values().removeIf(r -> r.state() != State.QUEUED && r.acceptedAt() < cutoff);
+
+        // QUEUED past the TTL and no longer on the queue: its outcome was lost, so report it as failed
+        List<Receipt> stuck = new ArrayList<>();
+        for (Receipt receipt : receipts.values()) {
+            if (receipt.state() == State.QUEUED && receipt.acceptedAt() < cutoff) {
+                stuck.add(receipt);
+            }
+        }
+        if (stuck.isEmpty()) {
+            return;
+        }
+        Set<String> waiting = new HashSet<>();
+        for (Pending pending : queue) {
+            waiting.add(pending.provisionalId());
+        }
+        for (Receipt receipt : stuck) {
+            if (!waiting.contains(receipt.provisionalId())) {
+                failed.increment();
+                logger.warn("Order {} expired without an outcome", receipt.provisionalId());
+                receipts.put(receipt.provisionalId(), new Receipt(receipt.provisionalId(), State.FAILED, null,
+                        "Expired without being written", System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void openJournal() throws IOException {
+        if (journalPath.getParent() != null) {
+            Files.createDirectories(journalPath.getParent());
+        }
+        List<Pending> replay = readJournal();
+        // Compact into a new file and swap it in atomically: until the move, the old journal still
+        // holds every uncommitted order, so a crash here loses nothing
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        journal = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            for (Pending pending : replay) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("op", "order");
+                entry.put("pid", pending.provisionalId());
+                entry.put("order", pending.order());
+                if (pending.quote() != null) {
+                    entry.put("quote", pending.quote());
+                }
+                appendJournal(entry);
+            }
+            journal.force(true);
+        } finally {
+            journal.close();
+            journal = null;
+        }
+        Files.move(compacted, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        journal = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+        journal.position(journal.size());
+
+        // Queue what was never committed ahead of new orders
+        for (Pending pending : replay) {
+            journalUncommitted++;
+            queue.add(pending);
+            receipts.put(pending.provisionalId(),
+                    new Receipt(pending.provisionalId(), State.QUEUED, null, null, pending.acceptedAt()));
+        }
+        if (!replay.isEmpty()) {
+            logger.info("Replaying {} uncommitted orders from {}", replay.size(), journalPath);
+        }
+    }
+
+    private List<Pending> readJournal() throws IOException {
+        Map<String, Pending> open = new LinkedHashMap<>();
+        if (!Files.exists(journalPath)) {
+            return new ArrayList<>();
+        }
+        TypeReference<Map<String, Object>> type = new TypeReference<>() {
+        };
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> entry;
+                try {
+                    entry = objectMapper.readValue(line, type);
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-write was never acknowledged
+                    logger.warn("Skipping unreadable journal line in {}", journalPath);
+                    continue;
+                }
+                String pid = (String) entry.get("pid");
+                if ("order".equals(entry.get("op"))) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> order = (Map<String, Object>) entry.get("order");
+                    order.putIfAbsent(INTAKE_ID, pid);
+                    PriceQuote quote = entry.get("quote") == null ? null
+                            : objectMapper.convertValue(entry.get("quote"), PriceQuote.class);
+                    if (quote != null) {
+                        // exact amount from the quote, not the double the JSON number was read back as
+                        order.put("amount", quote.totalBaht());
+                    }
+                    open.put(pid, new Pending(pid, order, quote, System.currentTimeMillis()));
+                } else {
+                    open.remove(pid);
+                }
+            }
+        }
+        return new ArrayList<>(open.values());
+    }
+
+    private void appendJournal(Map<String, Object> entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(false);
+    }
+
+    // Records the outcome; once nothing is outstanding the journal is truncated so it stays small
+    private void journalDone(Map<String, Object> entry) {
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                return;
+            }
+            if (--journalUncommitted == 0) {
+                journal.truncate(0);
+                journal.position(0);
+                journal.force(false);
+            } else {
+                appendJournal(entry);
+            }
+        } catch (IOException e) {
+            logger.error("Could not write to order journal {}", journalPath, e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void closeJournal() {
+        journalLock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not close order journal {}", journalPath, e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+}
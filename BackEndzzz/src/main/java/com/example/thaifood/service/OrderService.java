@@ -1,36 +1,173 @@
 package com.example.thaifood.service;
 
+import com.example.thaifood.dto.OrderDTO;
+import com.example.thaifood.dto.OrderItemDTO;
+import com.example.thaifood.jdbc.KeysetCursor;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.jdbc.TableSchema;
+import com.example.thaifood.model.MenuItem;
 import com.example.thaifood.model.Order;
+import com.example.thaifood.model.OrderStatus;
+import com.example.thaifood.pricing.PriceQuote;
+import com.example.thaifood.pricing.PricingEngine;
 import com.example.thaifood.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderBoard orderBoard;
+    private final PricingEngine pricingEngine;
+    private final SchemaRegistry schemaRegistry;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, OrderBoard orderBoard, PricingEngine pricingEngine,
+                        SchemaRegistry schemaRegistry) {
         this.orderRepository = orderRepository;
+        this.orderBoard = orderBoard;
+        this.pricingEngine = pricingEngine;
+        this.schemaRegistry = schemaRegistry;
     }
 
+    // The total comes from the menu prices, not the caller. Each entry in items is one portion:
+    // repeats of a menu item become one order_items row with its quantity and the unit price charged
+    @Transactional
     public Order createOrder(Order order) {
-        return orderRepository.save(order);
+        List<MenuItem> items = order.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one item");
+        }
+        Map<Long, MenuItem> lines = new LinkedHashMap<>();
+        Map<Long, Integer> portions = new HashMap<>();
+        for (MenuItem item : items) {
+            lines.putIfAbsent(item.getId(), item);
+            portions.merge(item.getId(), 1, Integer::sum);
+        }
+        long[] menuIds = new long[lines.size()];
+        int[] quantities = new int[lines.size()];
+        int i = 0;
+        for (Long menuId : lines.keySet()) {
+            menuIds[i] = menuId;
+            quantities[i++] = portions.get(menuId);
+        }
+        PriceQuote quote = pricingEngine.quote(menuIds, quantities, 0);
+        order.setTotalAmount(quote.totalBaht().doubleValue());
+
+        boolean priced = hasItemPriceColumns();
+        if (priced) {
+            order.setItems(new ArrayList<>(lines.values()));
+        }
+        Order saved = orderRepository.saveAndFlush(order);
+        if (priced) {
+            for (int line = 0; line < quote.lines(); line++) {
+                orderRepository.setItemPrice(saved.getId(), menuIds[line], quantities[line],
+                        PriceQuote.baht(quote.unitPrices()[line]));
+            }
+        }
+        orderBoard.onCreated(saved.getId(), saved.getStatus(), saved.getCustomerName(),
+                saved.getTotalAmount(), saved.getOrderDate());
+        return saved;
+    }
+
+    // Without quantity and unit_price on order_items, each portion stays a row of its own
+    private boolean hasItemPriceColumns() {
+        try {
+            TableSchema schema = schemaRegistry.get("order_items");
+            return schema.hasColumn("quantity") && schema.hasColumn("unit_price");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the order_items columns", e);
+        }
+    }
+
+    // save() commits before changeStatus moves the board, and both run under the order's board lock
+    public Optional<Order> updateOrderStatus(Long id, OrderStatus status) {
+        Order[] saved = new Order[1];
+        orderBoard.changeStatus(id, () -> {
+            Optional<Order> order = orderRepository.findById(id);
+            if (order.isEmpty()) {
+                return null;
+            }
+            order.get().setStatus(status.name());
+            saved[0] = orderRepository.save(order.get());
+            return status;
+        });
+        return Optional.ofNullable(saved[0]);
+    }
+
+    // Served from the live board rather than findByStatus
+    public List<OrderBoard.Entry> getOrdersByStatus(OrderStatus status) {
+        return orderBoard.get(status);
     }
 
+    // Items are fetched with the orders, so serializing the result runs no further queries
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        return orderRepository.findAllWithItems();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        return orderRepository.findWithItemsById(id);
+    }
+
+    // One page of summaries and the cursor for the next one (null on the last page)
+    public record SummaryPage(List<OrderDTO> orders, KeysetCursor next) {
+    }
+
+    // Two queries per page however many orders it holds: the page of orders, then the items of just those orders
+    @Transactional(readOnly = true)
+    public SummaryPage getOrderSummaries(KeysetCursor after, int pageSize) {
+        // one extra row tells whether there is a next page
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<OrderDTO> orders;
+        if (after == null) {
+            orders = orderRepository.findSummaries(page);
+        } else if (after.getSortKey() == null) {
+            orders = orderRepository.findUndatedSummariesAfter(after.getId(), page);
+        } else {
+            orders = orderRepository.findSummariesAfter(after.getSortKey(), after.getId(), page);
+        }
+        KeysetCursor next = null;
+        if (orders.size() > pageSize) {
+            orders = new ArrayList<>(orders.subList(0, pageSize));
+            OrderDTO last = orders.get(pageSize - 1);
+            next = new KeysetCursor(last.getOrderDate(), last.getId());
+        }
+        if (orders.isEmpty()) {
+            return new SummaryPage(orders, null);
+        }
+
+        List<Long> orderIds = new ArrayList<>(orders.size());
+        for (OrderDTO order : orders) {
+            orderIds.add(order.getId());
+        }
+        Map<Long, List<OrderItemDTO>> itemsByOrder = new HashMap<>();
+        for (OrderItemDTO item : orderRepository.findItemSummaries(orderIds)) {
+            itemsByOrder.computeIfAbsent(item.getOrderId(), k -> new ArrayList<>()).add(item);
+        }
+        for (OrderDTO order : orders) {
+            List<OrderItemDTO> items = itemsByOrder.getOrDefault(order.getId(), List.of());
+            order.setItems(items);
+            order.setMenuIds(items.stream().map(OrderItemDTO::getMenuId).toList());
+        }
+        return new SummaryPage(orders, next);
     }
 
     public void deleteOrder(Long id) {
         orderRepository.deleteById(id);
+        orderBoard.onDeleted(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+INSERT INTO categories (category_name, description) VALUES
+    ('อาหารจานเดียว', 'Single-dish meals'),
+    ('ต้มและแกง', 'Soups and curries'),
+    ('ของหวาน', 'Desserts');
+
+INSERT INTO menu_items (item_name, description, price, category_id) VALUES
+    ('ผัดไทยกุ้งสด', 'Pad Thai with fresh prawns', 80.00, 1),
+    ('ข้าวผัดกะเพราไก่', 'Stir-fried chicken with holy basil on rice', 60.00, 1),
+    ('ข้าวมันไก่', 'Hainanese chicken rice', 55.00, 1),
+    ('ต้มยำกุ้ง', 'Spicy and sour prawn soup', 120.00, 2),
+    ('แกงเขียวหวานไก่', 'Green curry with chicken', 90.00, 2),
+    ('ต้มข่าไก่', 'Chicken in coconut milk soup', 95.00, 2),
+    ('ข้าวเหนียวมะม่วง', 'Mango sticky rice', 70.00, 3),
+    ('บัวลอย', 'Rice flour balls in coconut milk', 40.00, 3);
+
+INSERT INTO orders (customer_id, customer_name, order_date, status, amount, total_amount) VALUES
+    (1, 'customer-1', TIMESTAMP '2024-05-01 11:30:00', 'completed', 140.00, 140.00),
+    (2, 'customer-2', TIMESTAMP '2024-05-01 12:05:00', 'completed', 210.00, 210.00),
+    (3, 'customer-3', TIMESTAMP '2024-05-01 12:10:00', 'processing', 95.00, 95.00),
+    (1, 'customer-1', TIMESTAMP '2024-05-01 12:20:00', 'pending', 60.00, 60.00);
+
+INSERT INTO order_items (order_id, menu_id, quantity, unit_price) VALUES
+    (1, 1, 1, 80.00),
+    (1, 2, 1, 60.00),
+    (2, 4, 1, 120.00),
+    (2, 5, 1, 90.00),
+    (3, 6, 1, 95.00),
+    (4, 2, 1, 60.00);
@@ -0,0 +1,44 @@
+-- Local stand-in for the thai_food schema (H2 in MySQL mode), used by the replica-local profile
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    category_name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS menu_items (
+    id_item BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    price DECIMAL(10, 2) DEFAULT 0 NOT NULL,
+    image_url VARCHAR(500),
+    category_id BIGINT,
+    is_available BOOLEAN DEFAULT TRUE NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- The MenuItem entity maps menu_item; the raw-JDBC controllers use menu_items
+CREATE VIEW IF NOT EXISTS menu_item AS SELECT * FROM menu_items;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id BIGINT,
+    customer_name VARCHAR(100),
+    order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) DEFAULT 'pending',
+    amount DECIMAL(10, 2),
+    total_amount DECIMAL(10, 2),
+    intake_id VARCHAR(36)
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_date_id ON orders (order_date, id);
+-- Provisional id of orders placed through the write-behind intake; makes journal replay idempotent
+CREATE UNIQUE INDEX IF NOT EXISTS uq_orders_intake_id ON orders (intake_id);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_id BIGINT NOT NULL,
+    menu_id BIGINT NOT NULL,
+    quantity INT DEFAULT 1 NOT NULL,
+    unit_price DECIMAL(10, 2)
+);
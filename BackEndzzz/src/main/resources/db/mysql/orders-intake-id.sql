@@ -0,0 +1,5 @@
+-- orders.intake_id for the write-behind order intake (thaifood.orders.intake.*). Each intake row
+-- stores its provisional id here; the unique index lets a journal replay after a crash recognise
+-- orders that were already committed instead of inserting them a second time.
+ALTER TABLE orders ADD COLUMN intake_id VARCHAR(36) NULL;
+CREATE UNIQUE INDEX uq_orders_intake_id ON orders (intake_id);
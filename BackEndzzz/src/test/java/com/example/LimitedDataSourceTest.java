@@ -0,0 +1,80 @@
+package com.example;
+
+import com.example.thaifood.jdbc.Bulkhead;
+import com.example.thaifood.jdbc.BulkheadFullException;
+import com.example.thaifood.jdbc.Bulkheads;
+import com.example.thaifood.jdbc.LimitedDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A request may open a second connection while holding one without queueing behind itself, but a
+ * later request on the same pooled thread must take its own permit even while an earlier request's
+ * connection is still open (open-in-view across an async dispatch, a streamed body).
+ */
+class LimitedDataSourceTest {
+
+    private Bulkheads bulkheads;
+    private LimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Bulkhead orders = new Bulkhead(Bulkheads.ORDERS, 1, 50, 1);
+        bulkheads = new Bulkheads(List.of(orders), Bulkheads.ORDERS);
+        dataSource = new LimitedDataSource(fakeDataSource(), bulkheads);
+    }
+
+    @Test
+    void sameRequestSharesItsPermit() throws Exception {
+        bulkheads.call(Bulkheads.ORDERS, () -> {
+            try (Connection outer = dataSource.getConnection();
+                 Connection inner = dataSource.getConnection()) {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    void nextRequestOnTheSameThreadTakesItsOwnPermit() throws Exception {
+        Connection first = bulkheads.call(Bulkheads.ORDERS, dataSource::getConnection);
+
+        // the only permit is still held by the first request's open connection
+        assertThrows(BulkheadFullException.class,
+                () -> bulkheads.call(Bulkheads.ORDERS, dataSource::getConnection));
+
+        first.close();
+        bulkheads.call(Bulkheads.ORDERS, dataSource::getConnection).close();
+    }
+
+    @Test
+    void requestTakesAFreshPermitAfterClosingItsLastConnection() throws Exception {
+        Bulkheads.Scope scope = new Bulkheads.Scope(Bulkheads.ORDERS);
+        bulkheads.call(scope, () -> {
+            dataSource.getConnection().close();
+            Connection again = dataSource.getConnection();
+            // the first close gave the permit back; reopening took it again, so another request must wait
+            assertThrows(BulkheadFullException.class,
+                    () -> bulkheads.call(Bulkheads.ORDERS, dataSource::getConnection));
+            again.close();
+            return null;
+        });
+    }
+
+    private static DataSource fakeDataSource() {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                (c, m, a) -> m.getReturnType() == boolean.class ? false : null);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
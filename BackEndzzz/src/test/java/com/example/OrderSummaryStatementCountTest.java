@@ -0,0 +1,153 @@
+package com.example;
+
+import com.example.thaifood.ThaiBackendApplication;
+import com.example.thaifood.dto.OrderDTO;
+import com.example.thaifood.jdbc.SchemaRegistry;
+import com.example.thaifood.model.MenuItem;
+import com.example.thaifood.model.Order;
+import com.example.thaifood.pricing.PricingEngine;
+import com.example.thaifood.service.OrderBoard;
+import com.example.thaifood.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GET /api/orders/summaries must cost the same number of statements for a page of one order as for
+ * a page of many: the page of orders, then the items of that page. GET /api/orders likewise must not
+ * grow with the number of orders. Counted with Hibernate statistics against the H2 schema the local
+ * profile uses.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summaries;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=public",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/h2/schema.sql",
+        "spring.sql.init.data-locations=classpath:db/h2/data.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = ThaiBackendApplication.class)
+@Import(OrderService.class)
+class OrderSummaryStatementCountTest {
+
+    private static final int ORDERS = 60;
+
+    @MockBean
+    private OrderBoard orderBoard;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        seed(ORDERS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Orders with two items each
+    private void seed(int orders) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (int i = 0; i < orders; i++) {
+            jdbc.update("INSERT INTO orders (customer_id, status, amount) VALUES (?, 'pending', 100.00)", i);
+            Long id = jdbc.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+            jdbc.update("INSERT INTO order_items (order_id, menu_id) VALUES (?, 1), (?, 2)", id, id);
+        }
+    }
+
+    @Test
+    void onePageCostsTwoStatementsWhateverItsSize() {
+        assertEquals(2, statementsFor(1));
+        assertEquals(2, statementsFor(50));
+    }
+
+    @Test
+    void everyOrderOnThePageHasItsItems() {
+        OrderService.SummaryPage page = orderService.getOrderSummaries(null, 50);
+        assertEquals(50, page.orders().size());
+        for (OrderDTO order : page.orders().subList(0, 10)) {
+            assertEquals(2, order.getItems().size());
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        OrderService.SummaryPage page = orderService.getOrderSummaries(null, 1000);
+        assertNull(page.next());
+    }
+
+    @Test
+    void allOrdersCostTheSameForTenTimesTheOrders() {
+        long forN = statementsForAllOrders(ORDERS);
+        seed(ORDERS * 9);
+        assertEquals(forN, statementsForAllOrders(ORDERS * 10));
+    }
+
+    // getAllOrders() with every order's items read, on a fresh persistence context
+    private long statementsForAllOrders(int seeded) {
+        entityManager.clear();
+        statistics.clear();
+        List<Order> orders = orderService.getAllOrders();
+        assertTrue(orders.size() >= seeded);
+        int items = 0;
+        for (Order order : orders) {
+            for (MenuItem item : order.getItems()) {
+                assertNotNull(item.getItemName());
+                items++;
+            }
+        }
+        assertTrue(items >= seeded * 2);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsFor(int pageSize) {
+        statistics.clear();
+        OrderService.SummaryPage page = orderService.getOrderSummaries(null, pageSize);
+        assertEquals(pageSize, page.orders().size());
+        return statistics.getPrepareStatementCount();
+    }
+}